@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("org.jetbrains.kotlin.jvm") version "1.9.25"
     id("org.jetbrains.intellij") version "1.17.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.brotech"
@@ -20,6 +21,51 @@ intellij {
     plugins.set(listOf("java"))
 }
 
+// Microbenchmarks (src/jmh/java): ./gradlew jmh
+// Benchmarks run against the same IDE and test framework classpath as the tests
+sourceSets.named("jmh") {
+    compileClasspath += sourceSets.test.get().compileClasspath
+    runtimeClasspath += sourceSets.test.get().runtimeClasspath
+}
+
+// Load test on generated large projects (src/loadTest/java): ./gradlew loadTest
+// Sizes are passed through, e.g. -PloadTestArgs="--classes 100000 --compare previous.json"
+val loadTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.test.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.test.get().runtimeClasspath
+}
+
+dependencies {
+    testImplementation("junit:junit:4.13.2")
+    jmh("junit:junit:4.13.2") // Required by the IntelliJ test framework fixtures
+    "loadTestImplementation"("junit:junit:4.13.2")
+}
+
+jmh {
+    benchmarkMode.set(listOf("thrpt", "avgt", "sample")) // Throughput, mean and percentile latency
+    timeUnit.set("us")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    profilers.add("gc") // Allocation rate per operation
+    resultFormat.set("JSON")
+    // idea.home.path etc. that the IntelliJ Gradle plugin sets up for tests
+    jvmArgsAppend.addAll(provider { tasks.test.get().allJvmArgs })
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Measures inspection, manual action and file listener on a generated large project."
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("com.brotech.autoserializablechecker.core.LoadTestMain")
+    maxHeapSize = "6g"
+    // idea.home.path etc. that the IntelliJ Gradle plugin sets up for tests
+    jvmArgumentProviders.add(CommandLineArgumentProvider { tasks.test.get().allJvmArgs })
+    args("--output", layout.buildDirectory.file("reports/loadTest/report.json").get().asFile.path)
+    args(providers.gradleProperty("loadTestArgs").map { it.split(" ").filter(String::isNotBlank) }.getOrElse(emptyList()))
+    outputs.upToDateWhen { false } // A measurement, never up to date
+}
+
 tasks {
     // Set the JVM compatibility versions
     withType<JavaCompile> {
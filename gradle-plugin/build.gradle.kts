@@ -0,0 +1,35 @@
+plugins {
+    id("java-gradle-plugin")
+}
+
+group = "com.brotech"
+version = "1.0"
+
+repositories {
+    mavenCentral()
+}
+
+// Build-time AutoSerializable checks - reuses the scanner's marker rules, no IntelliJ dependencies
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+dependencies {
+    implementation(project(":scanner"))
+    testImplementation("junit:junit:4.13.2")
+}
+
+// serialVersionUID fixtures shared with the IDE plugin's tests
+tasks.test {
+    systemProperty("serialVersionUid.fixtures", rootProject.file("src/test/testData/serialVersionUid/fixtures").path)
+}
+
+gradlePlugin {
+    plugins {
+        create("autoserializable") {
+            id = "com.brotech.autoserializable"
+            implementationClass = "com.brotech.autoserializablechecker.gradle.AutoserializableGradlePlugin"
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.brotech.autoserializablechecker.gradle;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The checked-in serialized forms AutoSerializable classes are compared against.
+ * One line per class, sorted by name so diffs stay readable:
+ * {@code <class> <serialVersionUID> <field>:<descriptor>,...}
+ */
+final class AutoserializableBaseline {
+
+    static final class Entry {
+        final String name;
+        final long serialVersionUid;
+        final List<String> serializedFields;
+
+        Entry(String name, long serialVersionUid, List<String> serializedFields) {
+            this.name = name;
+            this.serialVersionUid = serialVersionUid;
+            this.serializedFields = serializedFields;
+        }
+    }
+
+    private static final String HEADER = "# AutoSerializable baseline - regenerate with the updateAutoserializableBaseline task";
+
+    private AutoserializableBaseline() {
+    }
+
+    static Map<String, Entry> read(Path file) throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(" ", 3);
+            if (parts.length < 2) {
+                throw new IOException("Malformed baseline line in " + file + ": " + line);
+            }
+            List<String> fields = parts.length > 2 && !parts[2].isEmpty() ? Arrays.asList(parts[2].split(",")) : List.of();
+            try {
+                entries.put(parts[0], new Entry(parts[0], Long.parseLong(parts[1]), fields));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed serialVersionUID in " + file + ": " + line, e);
+            }
+        }
+        return entries;
+    }
+
+    static void write(Path file, Collection<ClassShape> classes) throws IOException {
+        List<ClassShape> sorted = new ArrayList<>(classes);
+        sorted.sort(Comparator.comparing(shape -> shape.name));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            for (ClassShape shape : sorted) {
+                out.write(shape.name + ' ' + shape.serialVersionUid + ' ' + String.join(",", shape.serializedFields));
+                out.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.brotech.autoserializablechecker.gradle;
+
+import com.brotech.autoserializablechecker.scanner.MarkerSet;
+import org.gradle.api.file.FileCollection;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads class files and decides which of the classes are AutoSerializable.
+ * A class is AutoSerializable if it carries a marker itself or any supertype (superclass or
+ * interface, transitively) is AutoSerializable. As in the standalone scanner, supertypes that
+ * aren't among the checked classes end the walk.
+ * Performance improvements:
+ * - Class files are read in parallel
+ * - Verdicts are memoized, so every class is visited once however deep the hierarchy
+ */
+final class AutoserializableClasses {
+
+    private AutoserializableClasses() {
+    }
+
+    /**
+     * All class files of {@code classes}, keyed by their path relative to their root directory
+     * (the same key {@link org.gradle.work.FileChange#getNormalizedPath()} gives with relative
+     * path sensitivity).
+     */
+    static Map<String, Path> collectClassFiles(FileCollection classes) {
+        Map<String, Path> files = new HashMap<>();
+        classes.getAsFileTree().visit(details -> {
+            String path = details.getRelativePath().getPathString();
+            if (!details.isDirectory() && path.endsWith(".class")) {
+                files.put(path, details.getFile().toPath());
+            }
+        });
+        return files;
+    }
+
+    /**
+     * Reads the given class files in parallel, keyed by the caller's key for each file.
+     * Files that aren't well-formed class files are left out.
+     */
+    static <K> Map<K, ClassShape> read(Map<K, Path> files, MarkerSet markers) {
+        Map<K, ClassShape> shapes = new ConcurrentHashMap<>();
+        files.entrySet().parallelStream().forEach(entry -> {
+            try {
+                ClassShape shape = ClassShapeReader.read(Files.readAllBytes(entry.getValue()), markers);
+                if (shape != null) {
+                    shapes.put(entry.getKey(), shape);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return shapes;
+    }
+
+    /**
+     * The AutoSerializable classes among {@code shapes}, by name.
+     */
+    static Map<String, ClassShape> findAutoserializable(Collection<ClassShape> shapes) {
+        Map<String, ClassShape> byName = new HashMap<>(shapes.size() * 2);
+        for (ClassShape shape : shapes) {
+            byName.put(shape.name, shape);
+        }
+        Map<String, Boolean> verdicts = new HashMap<>(byName.size() * 2);
+        Map<String, ClassShape> result = new LinkedHashMap<>();
+        for (ClassShape shape : shapes) {
+            if (isAutoserializable(shape.name, byName, verdicts)) {
+                result.put(shape.name, shape);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isAutoserializable(String name, Map<String, ClassShape> byName, Map<String, Boolean> verdicts) {
+        Boolean cached = verdicts.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        ClassShape shape = byName.get(name);
+        if (shape == null) {
+            return false; // Outside the checked classes
+        }
+        verdicts.put(name, Boolean.FALSE); // Cycle guard
+        boolean result = shape.direct;
+        if (!result) {
+            List<String> supertypes = new ArrayList<>(shape.interfaces.size() + 1);
+            if (shape.superName != null) {
+                supertypes.add(shape.superName);
+            }
+            supertypes.addAll(shape.interfaces);
+            for (String supertype : supertypes) {
+                if (isAutoserializable(supertype, byName, verdicts)) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        verdicts.put(name, result);
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+package com.brotech.autoserializablechecker.gradle;
+
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+
+/**
+ * The {@code autoserializable { }} block of a build script.
+ */
+public abstract class AutoserializableExtension {
+
+    /**
+     * Marker annotations and interfaces, matched like the IDE plugin's setting: a type matches if
+     * its name equals a marker or ends with "." + marker. Defaults to the IDE plugin's defaults.
+     */
+    public abstract ListProperty<String> getMarkers();
+
+    /**
+     * Serialized forms to compare against, written by {@code updateAutoserializableBaseline}.
+     * Defaults to {@code autoserializable-baseline.txt} in the project directory; without the file
+     * the check only lists the AutoSerializable classes.
+     */
+    public abstract RegularFileProperty getBaselineFile();
+
+    /**
+     * Whether incompatible changes fail the build (default) or are only logged as warnings.
+     */
+    public abstract Property<Boolean> getFailOnIncompatible();
+}
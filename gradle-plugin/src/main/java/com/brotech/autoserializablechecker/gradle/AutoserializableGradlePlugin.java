@@ -0,0 +1,55 @@
+package com.brotech.autoserializablechecker.gradle;
+
+import com.brotech.autoserializablechecker.scanner.MarkerSet;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.plugins.JavaBasePlugin;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.TaskProvider;
+
+/**
+ * Checks the AutoSerializable classes of a Java project at build time.
+ * Registers {@code checkAutoserializable}, which {@code check} depends on, and
+ * {@code updateAutoserializableBaseline}. Both work on the compiled main classes, so nothing is
+ * added to compilation itself.
+ */
+public class AutoserializableGradlePlugin implements Plugin<Project> {
+
+    @Override
+    public void apply(Project project) {
+        ProjectLayout layout = project.getLayout();
+        AutoserializableExtension extension = project.getExtensions().create("autoserializable", AutoserializableExtension.class);
+        extension.getMarkers().convention(MarkerSet.DEFAULT_MARKERS);
+        extension.getBaselineFile().convention(layout.getProjectDirectory().file("autoserializable-baseline.txt"));
+        extension.getFailOnIncompatible().convention(true);
+
+        project.getPluginManager().withPlugin("java", plugin -> {
+            SourceSet main = project.getExtensions().getByType(JavaPluginExtension.class)
+                    .getSourceSets().getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+
+            TaskProvider<CheckAutoserializableTask> check = project.getTasks().register(
+                    "checkAutoserializable", CheckAutoserializableTask.class, task -> {
+                        task.setGroup(JavaBasePlugin.VERIFICATION_GROUP);
+                        task.setDescription("Checks AutoSerializable classes for serialization-incompatible changes.");
+                        task.getClasses().from(main.getOutput().getClassesDirs());
+                        task.getMarkers().set(extension.getMarkers());
+                        // A baseline that doesn't exist yet is no input rather than a missing one
+                        task.getBaseline().set(extension.getBaselineFile().map(file -> file.getAsFile().exists() ? file : null));
+                        task.getFailOnIncompatible().set(extension.getFailOnIncompatible());
+                        task.getStateFile().set(layout.getBuildDirectory().file("autoserializable/state.bin"));
+                        task.getReportFile().set(layout.getBuildDirectory().file("reports/autoserializable/report.json"));
+                    });
+            project.getTasks().named(JavaBasePlugin.CHECK_TASK_NAME).configure(task -> task.dependsOn(check));
+
+            project.getTasks().register("updateAutoserializableBaseline", UpdateAutoserializableBaselineTask.class, task -> {
+                task.setGroup(JavaBasePlugin.VERIFICATION_GROUP);
+                task.setDescription("Records the serialized forms of the AutoSerializable classes as the new baseline.");
+                task.getClasses().from(main.getOutput().getClassesDirs());
+                task.getMarkers().set(extension.getMarkers());
+                task.getBaseline().set(extension.getBaselineFile());
+            });
+        });
+    }
+}
@@ -0,0 +1,256 @@
+package com.brotech.autoserializablechecker.gradle;
+
+import com.brotech.autoserializablechecker.scanner.MarkerSet;
+import com.brotech.autoserializablechecker.scanner.ScanReport;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the serialized forms of the AutoSerializable classes with the baseline and fails (or
+ * warns) on incompatible changes: a changed serialVersionUID, a removed serialized field or a
+ * field whose type changed.
+ * Performance improvements:
+ * - Incremental: only class files added or changed since the last run are read; the shapes of
+ *   the others come from the state file the previous run left in the build directory
+ * - Cacheable: outputs, including the state file, are restored from the build cache when the
+ *   classes, markers and baseline are unchanged
+ * - Works on the compiled classes, so compilation itself isn't slowed down
+ * - Class files are read in parallel; verdicts and the comparison only touch in-memory shapes
+ */
+@CacheableTask
+public abstract class CheckAutoserializableTask extends DefaultTask {
+
+    private static final int STATE_VERSION = 1;
+
+    @Incremental
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    @IgnoreEmptyDirectories
+    public abstract ConfigurableFileCollection getClasses();
+
+    @Input
+    public abstract ListProperty<String> getMarkers();
+
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getBaseline();
+
+    @Input
+    public abstract Property<Boolean> getFailOnIncompatible();
+
+    @OutputFile
+    public abstract RegularFileProperty getStateFile();
+
+    @OutputFile
+    public abstract RegularFileProperty getReportFile();
+
+    private static final class Problem {
+        final boolean incompatible;
+        final String className;
+        final String message;
+
+        Problem(boolean incompatible, String className, String message) {
+            this.incompatible = incompatible;
+            this.className = className;
+            this.message = message;
+        }
+    }
+
+    @TaskAction
+    public void check(InputChanges inputChanges) throws IOException {
+        MarkerSet markers = new MarkerSet(getMarkers().get());
+        Path stateFile = getStateFile().get().getAsFile().toPath();
+
+        Map<String, ClassShape> shapes = inputChanges.isIncremental() ? readState(stateFile) : null;
+        Map<String, Path> toRead;
+        if (shapes == null) {
+            shapes = new HashMap<>();
+            toRead = AutoserializableClasses.collectClassFiles(getClasses());
+        } else {
+            toRead = new HashMap<>();
+            for (FileChange change : inputChanges.getFileChanges(getClasses())) {
+                String path = change.getNormalizedPath();
+                if (change.getFileType() != FileType.FILE || !path.endsWith(".class")) {
+                    continue;
+                }
+                if (change.getChangeType() == ChangeType.REMOVED) {
+                    shapes.remove(path);
+                } else {
+                    toRead.put(path, change.getFile().toPath());
+                    shapes.remove(path);
+                }
+            }
+        }
+        shapes.putAll(AutoserializableClasses.read(toRead, markers));
+        writeState(stateFile, shapes);
+
+        Map<String, ClassShape> autoserializable = AutoserializableClasses.findAutoserializable(shapes.values());
+        List<Problem> problems = new ArrayList<>();
+        if (getBaseline().isPresent()) {
+            compare(autoserializable, AutoserializableBaseline.read(getBaseline().get().getAsFile().toPath()), problems);
+        }
+        Path reportFile = getReportFile().get().getAsFile().toPath();
+        writeReport(reportFile, autoserializable, problems, toRead.size());
+
+        getLogger().info("Checked {} AutoSerializable classes ({} class files read)", autoserializable.size(), toRead.size());
+        long incompatible = problems.stream().filter(problem -> problem.incompatible).count();
+        for (Problem problem : problems) {
+            if (problem.incompatible) {
+                getLogger().error("{}: {}", problem.className, problem.message);
+            } else {
+                getLogger().warn("{}: {}", problem.className, problem.message);
+            }
+        }
+        if (incompatible > 0) {
+            String message = incompatible + " incompatible AutoSerializable change(s), see " + reportFile
+                    + ". Run updateAutoserializableBaseline if they are intended.";
+            if (getFailOnIncompatible().get()) {
+                throw new GradleException(message);
+            }
+            getLogger().warn(message);
+        }
+    }
+
+    private static void compare(Map<String, ClassShape> autoserializable,
+                                Map<String, AutoserializableBaseline.Entry> baseline,
+                                List<Problem> problems) {
+        for (AutoserializableBaseline.Entry entry : baseline.values()) {
+            ClassShape shape = autoserializable.get(entry.name);
+            if (shape == null) {
+                problems.add(new Problem(false, entry.name, "in the baseline but no longer an AutoSerializable class"));
+                continue;
+            }
+            if (shape.serialVersionUid != entry.serialVersionUid) {
+                problems.add(new Problem(true, entry.name, "serialVersionUID changed from " + entry.serialVersionUid
+                        + " to " + shape.serialVersionUid + (shape.serialVersionUidDeclared ? ""
+                        : " (default value; declare serialVersionUID = " + entry.serialVersionUid + "L to keep it)")));
+            }
+            Map<String, String> types = toTypes(shape.serializedFields);
+            for (Map.Entry<String, String> field : toTypes(entry.serializedFields).entrySet()) {
+                String type = types.get(field.getKey());
+                if (type == null) {
+                    problems.add(new Problem(true, entry.name, "serialized field " + field.getKey() + " removed"));
+                } else if (!type.equals(field.getValue())) {
+                    problems.add(new Problem(true, entry.name, "serialized field " + field.getKey()
+                            + " changed type from " + field.getValue() + " to " + type));
+                }
+            }
+        }
+        for (ClassShape shape : autoserializable.values()) {
+            if (!baseline.containsKey(shape.name)) {
+                problems.add(new Problem(false, shape.name, "not in the baseline yet"));
+            }
+        }
+        problems.sort(Comparator.comparing(problem -> problem.className));
+    }
+
+    private static Map<String, String> toTypes(List<String> fields) {
+        Map<String, String> types = new HashMap<>();
+        for (String field : fields) {
+            int colon = field.indexOf(':');
+            types.put(field.substring(0, colon), field.substring(colon + 1));
+        }
+        return types;
+    }
+
+    /**
+     * Shapes of the previous run by class file path, or {@code null} if there is no usable state.
+     */
+    private Map<String, ClassShape> readState(Path stateFile) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(stateFile)))) {
+            if (in.readInt() != STATE_VERSION) {
+                return null;
+            }
+            int size = in.readInt();
+            Map<String, ClassShape> shapes = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                String path = in.readUTF();
+                shapes.put(path, ClassShape.read(in));
+            }
+            return shapes;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            getLogger().info("Ignoring unreadable AutoSerializable state {}", stateFile, e);
+            return null;
+        }
+    }
+
+    private static void writeState(Path stateFile, Map<String, ClassShape> shapes) throws IOException {
+        Files.createDirectories(stateFile.getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(stateFile)))) {
+            out.writeInt(STATE_VERSION);
+            out.writeInt(shapes.size());
+            for (Map.Entry<String, ClassShape> entry : shapes.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+        }
+    }
+
+    private static void writeReport(Path reportFile, Map<String, ClassShape> autoserializable,
+                                    List<Problem> problems, int classFilesRead) throws IOException {
+        List<ClassShape> sorted = new ArrayList<>(autoserializable.values());
+        sorted.sort(Comparator.comparing(shape -> shape.name));
+        Files.createDirectories(reportFile.getParent());
+        try (Writer out = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            out.write("{\n");
+            out.write("  \"classFilesRead\": " + classFilesRead + ",\n");
+            out.write("  \"classes\": [");
+            for (int i = 0; i < sorted.size(); i++) {
+                ClassShape shape = sorted.get(i);
+                out.write(i == 0 ? "\n    " : ",\n    ");
+                out.write("{\"class\": " + ScanReport.quote(shape.name)
+                        + ", \"serialVersionUID\": " + shape.serialVersionUid
+                        + ", \"declared\": " + shape.serialVersionUidDeclared + "}");
+            }
+            out.write(sorted.isEmpty() ? "],\n" : "\n  ],\n");
+            out.write("  \"problems\": [");
+            for (int i = 0; i < problems.size(); i++) {
+                Problem problem = problems.get(i);
+                out.write(i == 0 ? "\n    " : ",\n    ");
+                out.write("{\"class\": " + ScanReport.quote(problem.className)
+                        + ", \"incompatible\": " + problem.incompatible
+                        + ", \"message\": " + ScanReport.quote(problem.message) + "}");
+            }
+            out.write(problems.isEmpty() ? "]\n" : "\n  ]\n");
+            out.write("}\n");
+        }
+    }
+}
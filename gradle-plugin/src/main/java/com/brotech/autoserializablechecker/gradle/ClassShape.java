@@ -0,0 +1,73 @@
+package com.brotech.autoserializablechecker.gradle;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the build-time check needs from one class file: its supertypes, whether it carries a
+ * marker itself, and its serialized form (serialized fields and effective serialVersionUID).
+ * Names use dots for both packages and nesting, as in the IDE plugin, e.g. {@code com.example.Outer.Inner}.
+ */
+final class ClassShape {
+
+    final String name;
+    final String superName;
+    final List<String> interfaces;
+    final boolean direct;
+    // "name:descriptor" of the non-static, non-transient fields in declaration order
+    final List<String> serializedFields;
+    // Declared value, or the JVM's default computed from the class file
+    final long serialVersionUid;
+    final boolean serialVersionUidDeclared;
+
+    ClassShape(String name, String superName, List<String> interfaces, boolean direct,
+               List<String> serializedFields, long serialVersionUid, boolean serialVersionUidDeclared) {
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = List.copyOf(interfaces);
+        this.direct = direct;
+        this.serializedFields = List.copyOf(serializedFields);
+        this.serialVersionUid = serialVersionUid;
+        this.serialVersionUidDeclared = serialVersionUidDeclared;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeUTF(name);
+        out.writeUTF(superName != null ? superName : "");
+        writeList(out, interfaces);
+        out.writeBoolean(direct);
+        writeList(out, serializedFields);
+        out.writeLong(serialVersionUid);
+        out.writeBoolean(serialVersionUidDeclared);
+    }
+
+    static ClassShape read(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        String superName = in.readUTF();
+        List<String> interfaces = readList(in);
+        boolean direct = in.readBoolean();
+        List<String> fields = readList(in);
+        long uid = in.readLong();
+        boolean declared = in.readBoolean();
+        return new ClassShape(name, superName.isEmpty() ? null : superName, interfaces, direct, fields, uid, declared);
+    }
+
+    private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readList(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+}
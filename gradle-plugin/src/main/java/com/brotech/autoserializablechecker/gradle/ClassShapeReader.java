@@ -0,0 +1,410 @@
+package com.brotech.autoserializablechecker.gradle;
+
+import com.brotech.autoserializablechecker.scanner.MarkerSet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Reads a {@link ClassShape} from a compiled class file.
+ * The default serialVersionUID is computed with the algorithm of {@code java.io.ObjectStreamClass}
+ * from the members actually in the class file, so unlike the IDE plugin's PSI-based computation
+ * nothing javac adds has to be modelled.
+ * Performance: one pass over the class file; code attributes are skipped, not decoded.
+ */
+final class ClassShapeReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_ENUM = 0x4000;
+    private static final int ACC_MODULE = 0x8000;
+    private static final int CLASS_MASK = Modifier.PUBLIC | Modifier.FINAL | Modifier.INTERFACE | Modifier.ABSTRACT;
+    private static final int FIELD_MASK = Modifier.PUBLIC | Modifier.PRIVATE | Modifier.PROTECTED | Modifier.STATIC
+            | Modifier.FINAL | Modifier.VOLATILE | Modifier.TRANSIENT;
+    private static final int METHOD_MASK = Modifier.PUBLIC | Modifier.PRIVATE | Modifier.PROTECTED | Modifier.STATIC
+            | Modifier.FINAL | Modifier.SYNCHRONIZED | Modifier.NATIVE | Modifier.ABSTRACT | Modifier.STRICT;
+
+    private static final class Member {
+        final int access;
+        final String name;
+        final String descriptor;
+
+        Member(int access, String name, String descriptor) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+    }
+
+    private final byte[] bytes;
+    private final MarkerSet markers;
+    private int[] offsets; // Constant pool index -> offset of the entry's tag byte
+    private int pos;
+
+    private ClassShapeReader(byte[] bytes, MarkerSet markers) {
+        this.bytes = bytes;
+        this.markers = markers;
+    }
+
+    /**
+     * Parses a class file. Returns {@code null} for module descriptors and for bytes that are not
+     * a well-formed class file.
+     */
+    static ClassShape read(byte[] bytes, MarkerSet markers) {
+        try {
+            return new ClassShapeReader(bytes, markers).read();
+        } catch (ArrayIndexOutOfBoundsException | IllegalStateException e) {
+            return null; // Truncated or corrupt
+        }
+    }
+
+    private ClassShape read() {
+        if (readInt() != MAGIC) {
+            return null;
+        }
+        pos += 4; // minor_version, major_version
+        readConstantPool();
+
+        int access = readUnsignedShort();
+        String internalName = getClassName(readUnsignedShort());
+        if ((access & ACC_MODULE) != 0) {
+            return null;
+        }
+        int superIndex = readUnsignedShort();
+        String superName = superIndex != 0 ? getClassName(superIndex) : null;
+        int interfaceCount = readUnsignedShort();
+        List<String> interfaces = new ArrayList<>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces.add(getClassName(readUnsignedShort()));
+        }
+
+        List<Member> fields = new ArrayList<>();
+        Long declaredUid = readFields(fields);
+        List<Member> methods = readMembers();
+
+        boolean direct = false;
+        int classAccess = access;
+        int attributeCount = readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = getUtf8(readUnsignedShort());
+            int length = readInt();
+            int end = pos + length;
+            // Marker annotations may have CLASS retention, so both kinds are checked
+            if ("RuntimeVisibleAnnotations".equals(attributeName) || "RuntimeInvisibleAnnotations".equals(attributeName)) {
+                direct |= hasMarkerAnnotation();
+            } else if ("InnerClasses".equals(attributeName)) {
+                // Nested classes' source modifiers (static, private, ...) are only recorded here
+                classAccess = getInnerClassAccess(internalName, classAccess);
+            }
+            pos = end;
+        }
+
+        String name = toQualifiedName(internalName);
+        String qualifiedSuper = superName != null ? toQualifiedName(superName) : null;
+        List<String> qualifiedInterfaces = new ArrayList<>(interfaces.size());
+        for (String interfaceName : interfaces) {
+            qualifiedInterfaces.add(toQualifiedName(interfaceName));
+        }
+        direct |= qualifiedSuper != null && markers.matches(qualifiedSuper);
+        for (String interfaceName : qualifiedInterfaces) {
+            direct |= markers.matches(interfaceName);
+        }
+
+        List<String> serializedFields = new ArrayList<>();
+        for (Member field : fields) {
+            if ((field.access & (Modifier.STATIC | Modifier.TRANSIENT)) == 0) {
+                serializedFields.add(field.name + ':' + field.descriptor);
+            }
+        }
+
+        long uid;
+        if (declaredUid != null) {
+            uid = declaredUid;
+        } else if ((access & ACC_ENUM) != 0 || "java/lang/Record".equals(superName)) {
+            // Enums, including constant bodies, and records are always 0
+            uid = 0L;
+        } else {
+            uid = computeDefaultUid(internalName, classAccess, interfaces, fields, methods);
+        }
+        return new ClassShape(name, qualifiedSuper, qualifiedInterfaces, direct, serializedFields, uid, declaredUid != null);
+    }
+
+    /**
+     * Reads the fields and returns the value of a {@code static final long serialVersionUID}, if declared.
+     */
+    private Long readFields(List<Member> fields) {
+        Long declaredUid = null;
+        int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            Member field = new Member(readUnsignedShort(), getUtf8(readUnsignedShort()), getUtf8(readUnsignedShort()));
+            fields.add(field);
+            boolean uidField = "serialVersionUID".equals(field.name) && "J".equals(field.descriptor)
+                    && (field.access & (Modifier.STATIC | Modifier.FINAL)) == (Modifier.STATIC | Modifier.FINAL);
+            int attributeCount = readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                String attributeName = getUtf8(readUnsignedShort());
+                int length = readInt();
+                int end = pos + length;
+                if (uidField && "ConstantValue".equals(attributeName)) {
+                    declaredUid = getLong(readUnsignedShort());
+                }
+                pos = end;
+            }
+        }
+        return declaredUid;
+    }
+
+    private List<Member> readMembers() {
+        int count = readUnsignedShort();
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(new Member(readUnsignedShort(), getUtf8(readUnsignedShort()), getUtf8(readUnsignedShort())));
+            skipAttributes();
+        }
+        return members;
+    }
+
+    private int getInnerClassAccess(String internalName, int access) {
+        int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            int innerIndex = readUnsignedShort();
+            pos += 4; // outer_class_info_index, inner_name_index
+            int innerAccess = readUnsignedShort();
+            if (internalName.equals(getClassName(innerIndex))) {
+                return innerAccess;
+            }
+        }
+        return access;
+    }
+
+    private boolean hasMarkerAnnotation() {
+        int annotationCount = readUnsignedShort();
+        for (int i = 0; i < annotationCount; i++) {
+            String descriptor = getUtf8(readUnsignedShort());
+            if (descriptor != null && descriptor.length() > 2
+                    && markers.matches(toQualifiedName(descriptor.substring(1, descriptor.length() - 1)))) {
+                return true;
+            }
+            skipElementValuePairs();
+        }
+        return false;
+    }
+
+    /**
+     * The serialVersionUID {@code ObjectStreamClass} computes for a class that doesn't declare one.
+     */
+    private static long computeDefaultUid(String internalName, int classAccess, List<String> interfaces,
+                                          List<Member> fields, List<Member> methods) {
+        List<Member> constructors = new ArrayList<>();
+        List<Member> declaredMethods = new ArrayList<>();
+        boolean staticInitializer = false;
+        for (Member method : methods) {
+            if ("<clinit>".equals(method.name)) {
+                staticInitializer = true;
+            } else if ("<init>".equals(method.name)) {
+                constructors.add(method);
+            } else {
+                declaredMethods.add(method);
+            }
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(internalName.replace('/', '.'));
+
+            int classModifiers = classAccess & CLASS_MASK;
+            if ((classModifiers & Modifier.INTERFACE) != 0) {
+                classModifiers = declaredMethods.isEmpty() ? classModifiers & ~Modifier.ABSTRACT : classModifiers | Modifier.ABSTRACT;
+            }
+            out.writeInt(classModifiers);
+
+            TreeSet<String> interfaceNames = new TreeSet<>();
+            for (String interfaceName : interfaces) {
+                interfaceNames.add(interfaceName.replace('/', '.'));
+            }
+            for (String interfaceName : interfaceNames) {
+                out.writeUTF(interfaceName);
+            }
+
+            List<Member> sortedFields = new ArrayList<>(fields);
+            sortedFields.sort(Comparator.comparing(member -> member.name));
+            for (Member field : sortedFields) {
+                int modifiers = field.access & FIELD_MASK;
+                if ((modifiers & Modifier.PRIVATE) == 0 || (modifiers & (Modifier.STATIC | Modifier.TRANSIENT)) == 0) {
+                    out.writeUTF(field.name);
+                    out.writeInt(modifiers);
+                    out.writeUTF(field.descriptor);
+                }
+            }
+
+            if (staticInitializer) {
+                out.writeUTF("<clinit>");
+                out.writeInt(Modifier.STATIC);
+                out.writeUTF("()V");
+            }
+
+            constructors.sort(Comparator.comparing(member -> member.descriptor));
+            writeMethods(out, constructors);
+            declaredMethods.sort(Comparator.<Member, String>comparing(member -> member.name).thenComparing(member -> member.descriptor));
+            writeMethods(out, declaredMethods);
+            out.flush();
+
+            byte[] hash = MessageDigest.getInstance("SHA").digest(bytes.toByteArray());
+            long uid = 0;
+            for (int i = Math.min(hash.length, 8) - 1; i >= 0; i--) {
+                uid = (uid << 8) | (hash[i] & 0xFF);
+            }
+            return uid;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeMethods(DataOutputStream out, List<Member> members) throws IOException {
+        for (Member member : members) {
+            int modifiers = member.access & METHOD_MASK;
+            if ((modifiers & Modifier.PRIVATE) == 0) {
+                out.writeUTF(member.name);
+                out.writeInt(modifiers);
+                out.writeUTF(member.descriptor.replace('/', '.'));
+            }
+        }
+    }
+
+    private void readConstantPool() {
+        int count = readUnsignedShort();
+        offsets = new int[count];
+        for (int i = 1; i < count; i++) {
+            offsets[i] = pos;
+            int tag = bytes[pos++];
+            switch (tag) {
+                case 1: // Utf8
+                    pos += 2 + readUnsignedShort(pos);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    pos += 8;
+                    i++; // Takes two slots
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    pos += 4;
+                    break;
+                case 15: // MethodHandle
+                    pos += 3;
+                    break;
+                case 7: // Class
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    pos += 2;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    private void skipAttributes() {
+        int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            pos += 2; // attribute_name_index
+            int length = readInt();
+            pos += length;
+        }
+    }
+
+    private void skipElementValuePairs() {
+        int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            pos += 2; // element_name_index
+            skipElementValue();
+        }
+    }
+
+    private void skipElementValue() {
+        int tag = bytes[pos++];
+        switch (tag) {
+            case 'e': // Enum constant
+                pos += 4;
+                break;
+            case '@': // Nested annotation
+                pos += 2;
+                skipElementValuePairs();
+                break;
+            case '[':
+                int count = readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue();
+                }
+                break;
+            default: // Constant or class
+                pos += 2;
+        }
+    }
+
+    private String getClassName(int classIndex) {
+        if (classIndex <= 0 || classIndex >= offsets.length || bytes[offsets[classIndex]] != 7) {
+            throw new IllegalStateException("Not a Class constant: " + classIndex);
+        }
+        return getUtf8(readUnsignedShort(offsets[classIndex] + 1));
+    }
+
+    private String getUtf8(int index) {
+        if (index <= 0 || index >= offsets.length || bytes[offsets[index]] != 1) {
+            throw new IllegalStateException("Not a Utf8 constant: " + index);
+        }
+        int offset = offsets[index];
+        // Names and descriptors are plain ASCII in practice; modified UTF-8 only differs from
+        // UTF-8 for NUL and supplementary characters
+        return new String(bytes, offset + 3, readUnsignedShort(offset + 1), StandardCharsets.UTF_8);
+    }
+
+    private Long getLong(int index) {
+        if (index <= 0 || index >= offsets.length || bytes[offsets[index]] != 5) {
+            return null;
+        }
+        long value = 0;
+        for (int i = 1; i <= 8; i++) {
+            value = (value << 8) | (bytes[offsets[index] + i] & 0xFF);
+        }
+        return value;
+    }
+
+    static String toQualifiedName(String internalName) {
+        return internalName.replace('/', '.').replace('$', '.');
+    }
+
+    private int readUnsignedShort() {
+        int value = readUnsignedShort(pos);
+        pos += 2;
+        return value;
+    }
+
+    private int readUnsignedShort(int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private int readInt() {
+        int value = ((bytes[pos] & 0xFF) << 24) | ((bytes[pos + 1] & 0xFF) << 16)
+                | ((bytes[pos + 2] & 0xFF) << 8) | (bytes[pos + 3] & 0xFF);
+        pos += 4;
+        return value;
+    }
+}
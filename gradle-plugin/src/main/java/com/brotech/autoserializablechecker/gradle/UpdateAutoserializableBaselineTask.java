@@ -0,0 +1,46 @@
+package com.brotech.autoserializablechecker.gradle;
+
+import com.brotech.autoserializablechecker.scanner.MarkerSet;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Writes the current serialized forms of the AutoSerializable classes to the baseline file.
+ * Run after intended changes; the baseline is meant to be committed.
+ */
+public abstract class UpdateAutoserializableBaselineTask extends DefaultTask {
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    @IgnoreEmptyDirectories
+    public abstract ConfigurableFileCollection getClasses();
+
+    @Input
+    public abstract ListProperty<String> getMarkers();
+
+    @OutputFile
+    public abstract RegularFileProperty getBaseline();
+
+    @TaskAction
+    public void update() throws IOException {
+        Map<String, ClassShape> shapes = AutoserializableClasses.read(
+                AutoserializableClasses.collectClassFiles(getClasses()), new MarkerSet(getMarkers().get()));
+        Map<String, ClassShape> autoserializable = AutoserializableClasses.findAutoserializable(shapes.values());
+        Path baseline = getBaseline().get().getAsFile().toPath();
+        AutoserializableBaseline.write(baseline, autoserializable.values());
+        getLogger().lifecycle("Recorded {} AutoSerializable classes in {}", autoserializable.size(), baseline);
+    }
+}
@@ -0,0 +1,75 @@
+package com.brotech.autoserializablechecker.gradle;
+
+import com.brotech.autoserializablechecker.scanner.MarkerSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.ObjectStreamClass;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the serialVersionUID read from class files against {@link ObjectStreamClass}, on the
+ * fixtures shared with the IDE plugin's AutoserializableSerialVersionUidTest.
+ */
+public class ClassShapeReaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void defaultUidMatchesObjectStreamClass() throws Exception {
+        Path classes = temporaryFolder.newFolder().toPath();
+        compile(Path.of(System.getProperty("serialVersionUid.fixtures")), classes);
+
+        MarkerSet markers = new MarkerSet(MarkerSet.DEFAULT_MARKERS);
+        int compared = 0;
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, null)) {
+            for (String name : getClassNames(classes)) {
+                ObjectStreamClass expected = ObjectStreamClass.lookup(Class.forName(name, false, loader));
+                if (expected == null) {
+                    continue; // Not Serializable
+                }
+                ClassShape shape = ClassShapeReader.read(Files.readAllBytes(classes.resolve(name.replace('.', File.separatorChar) + ".class")), markers);
+                assertNotNull(name, shape);
+                assertEquals(name, expected.getSerialVersionUID(), shape.serialVersionUid);
+                compared++;
+            }
+        }
+        assertTrue("No fixture was compared", compared > 0);
+    }
+
+    private static void compile(Path sources, Path output) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of("--release", "17", "-d", output.toString()));
+        try (Stream<Path> files = Files.list(sources)) {
+            files.filter(file -> file.toString().endsWith(".java")).forEach(file -> arguments.add(file.toString()));
+        }
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests must run on a JDK", javac);
+        assertEquals("javac failed", 0, javac.run(null, null, null, arguments.toArray(new String[0])));
+    }
+
+    private static List<String> getClassNames(Path classes) throws Exception {
+        try (Stream<Path> files = Files.walk(classes)) {
+            return files.map(file -> classes.relativize(file).toString())
+                    .filter(path -> path.endsWith(".class"))
+                    .map(path -> path.substring(0, path.length() - ".class".length()).replace(File.separatorChar, '.'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
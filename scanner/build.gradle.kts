@@ -0,0 +1,28 @@
+plugins {
+    id("java")
+    id("application")
+}
+
+group = "com.brotech"
+version = "1.0"
+
+repositories {
+    mavenCentral()
+}
+
+// Standalone CI scanner - plain JDK only, no IntelliJ platform dependencies
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+application {
+    mainClass.set("com.brotech.autoserializablechecker.scanner.AutoserializableScannerMain")
+    applicationName = "autoserializable-scanner"
+}
+
+tasks.jar {
+    manifest {
+        attributes("Main-Class" to "com.brotech.autoserializablechecker.scanner.AutoserializableScannerMain")
+    }
+}
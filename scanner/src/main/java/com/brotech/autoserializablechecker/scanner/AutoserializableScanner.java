@@ -0,0 +1,151 @@
+package com.brotech.autoserializablechecker.scanner;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Headless AutoSerializable scanner for CI.
+ * Performance improvements:
+ * - Directory walking and parsing share one work-stealing {@link ForkJoinPool}: every directory
+ *   is a task, so deep and wide trees balance across cores automatically
+ * - Files are memory-mapped and parsed straight from the mapped bytes, no decoding or copying
+ * - Only class headers are extracted; the hierarchy walk runs once over the in-memory model
+ */
+public final class AutoserializableScanner {
+
+    private final MarkerSet markers;
+    private final Set<String> excludedDirectories;
+    private final int parallelism;
+
+    public AutoserializableScanner(MarkerSet markers, Set<String> excludedDirectories, int parallelism) {
+        this.markers = markers;
+        this.excludedDirectories = Set.copyOf(excludedDirectories);
+        this.parallelism = parallelism;
+    }
+
+    public ScanReport scan(List<Path> roots) {
+        long start = System.nanoTime();
+        ConcurrentLinkedQueue<ParsedFile> parsed = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<DirectoryTask> tasks = new ArrayList<>();
+            for (Path root : roots) {
+                tasks.add(new DirectoryTask(root, parsed, errors));
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        List<ParsedFile> files = new ArrayList<>(parsed);
+        HierarchyResolver resolver = new HierarchyResolver(markers, files);
+
+        List<ScanReport.Finding> findings = new ArrayList<>();
+        int classCount = 0;
+        for (ParsedFile file : files) {
+            for (SourceClass sourceClass : file.getClasses()) {
+                classCount++;
+                HierarchyResolver.Verdict verdict = resolver.getVerdict(sourceClass);
+                if (verdict.isAutoserializable()) {
+                    findings.add(new ScanReport.Finding(
+                            sourceClass.getQualifiedName(),
+                            file.getPath().toString(),
+                            sourceClass.getLine(),
+                            verdict.reason.name().toLowerCase(),
+                            verdict.via.getQualifiedName()));
+                }
+            }
+        }
+        // Parallel discovery order is random - sort so reports can be diffed between runs
+        findings.sort(Comparator.comparing(ScanReport.Finding::getClassName)
+                .thenComparing(ScanReport.Finding::getFile));
+        List<String> sortedErrors = new ArrayList<>(errors);
+        sortedErrors.sort(null);
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        return new ScanReport(files.size(), classCount, durationMs, findings, sortedErrors);
+    }
+
+    // Never serialized; ForkJoinTask is Serializable only by inheritance
+    @SuppressWarnings("serial")
+    private final class DirectoryTask extends RecursiveAction {
+        private final Path directory;
+        private final ConcurrentLinkedQueue<ParsedFile> parsed;
+        private final ConcurrentLinkedQueue<String> errors;
+
+        DirectoryTask(Path directory, ConcurrentLinkedQueue<ParsedFile> parsed, ConcurrentLinkedQueue<String> errors) {
+            this.directory = directory;
+            this.parsed = parsed;
+            this.errors = errors;
+        }
+
+        @Override
+        protected void compute() {
+            if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+                if (isJavaFile(directory)) {
+                    parseFile(directory); // A single file given as a root
+                }
+                return;
+            }
+
+            List<DirectoryTask> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        if (!isExcluded(entry)) {
+                            subdirectories.add(new DirectoryTask(entry, parsed, errors));
+                        }
+                    } else if (isJavaFile(entry)) {
+                        parseFile(entry);
+                    }
+                }
+            } catch (IOException e) {
+                errors.add(directory + ": " + e.getMessage());
+            }
+            invokeAll(subdirectories);
+        }
+
+        private void parseFile(Path file) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size == 0) {
+                    return;
+                }
+                MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                parsed.add(JavaSourceParser.parse(file, content));
+            } catch (IOException | RuntimeException e) {
+                errors.add(file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean isExcluded(Path directory) {
+        String name = directory.getFileName().toString();
+        return name.startsWith(".") || excludedDirectories.contains(name);
+    }
+
+    private static boolean isJavaFile(Path file) {
+        Path name = file.getFileName();
+        return name != null && name.toString().endsWith(".java");
+    }
+}
@@ -0,0 +1,108 @@
+package com.brotech.autoserializablechecker.scanner;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Command-line entry point: scans source trees and writes a JSON report.
+ * Exit codes: 0 on success, 1 if files could not be read, 2 on invalid usage.
+ */
+public final class AutoserializableScannerMain {
+
+    private static final String USAGE =
+            "Usage: autoserializable-scanner [options] <source-root>...\n" +
+            "  --output <file>       write the JSON report to a file (default: stdout)\n" +
+            "  --threads <n>         worker threads (default: available processors)\n" +
+            "  --marker <name>       marker annotation/interface name, repeatable (replaces the defaults)\n" +
+            "  --exclude-dir <name>  skip directories with this name, repeatable (hidden directories are always skipped)\n";
+
+    private AutoserializableScannerMain() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        List<Path> roots = new ArrayList<>();
+        List<String> markers = new ArrayList<>();
+        Set<String> excludedDirectories = new HashSet<>();
+        Path output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--output":
+                        output = Paths.get(requireValue(args, ++i, arg));
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(requireValue(args, ++i, arg));
+                        if (threads < 1) {
+                            throw new IllegalArgumentException("--threads must be at least 1");
+                        }
+                        break;
+                    case "--marker":
+                        markers.add(requireValue(args, ++i, arg));
+                        break;
+                    case "--exclude-dir":
+                        excludedDirectories.add(requireValue(args, ++i, arg));
+                        break;
+                    case "--help":
+                        System.out.print(USAGE);
+                        return 0;
+                    default:
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        roots.add(Paths.get(arg));
+                }
+            }
+            if (roots.isEmpty()) {
+                throw new IllegalArgumentException("No source roots given");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        MarkerSet markerSet = new MarkerSet(markers.isEmpty() ? MarkerSet.DEFAULT_MARKERS : markers);
+        ScanReport report = new AutoserializableScanner(markerSet, excludedDirectories, threads).scan(roots);
+
+        try {
+            if (output != null) {
+                try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                    report.writeJson(writer);
+                }
+            } else {
+                report.writeJson(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write report: " + e.getMessage());
+            return 1;
+        }
+
+        System.err.printf("Scanned %d files (%d classes) in %d ms, found %d AutoSerializable class(es)%n",
+                report.getFilesScanned(), report.getClassesScanned(), report.getDurationMs(),
+                report.getFindings().size());
+        return report.getErrors().isEmpty() ? 0 : 1;
+    }
+
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+}
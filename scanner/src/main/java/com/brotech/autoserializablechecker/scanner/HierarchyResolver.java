@@ -0,0 +1,155 @@
+package com.brotech.autoserializablechecker.scanner;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the plugin's detection rules to parsed sources: a type is AutoSerializable if it is
+ * annotated with a marker, implements a marker interface (extends it, for an interface), or one of
+ * its supertypes - superclass or super-interfaces - is AutoSerializable.
+ * Supertype names are resolved like javac would for source types (enclosing classes, single-type
+ * imports, same package, on-demand imports). Types that are not part of the scanned sources
+ * (libraries, JDK) cannot be resolved and end that branch of the walk.
+ */
+final class HierarchyResolver {
+
+    enum Reason {
+        ANNOTATION,
+        INTERFACE,
+        INHERITED
+    }
+
+    static final class Verdict {
+        static final Verdict NONE = new Verdict(null, null);
+
+        final Reason reason;
+        final SourceClass via;
+
+        Verdict(Reason reason, SourceClass via) {
+            this.reason = reason;
+            this.via = via;
+        }
+
+        boolean isAutoserializable() {
+            return reason != null;
+        }
+    }
+
+    // Marks a class whose verdict is being computed; seeing it again means an inheritance cycle
+    private static final Verdict IN_PROGRESS = new Verdict(null, null);
+
+    private final MarkerSet markers;
+    private final Map<String, SourceClass> classesByName = new HashMap<>();
+    private final Map<SourceClass, Verdict> verdicts = new IdentityHashMap<>();
+
+    HierarchyResolver(MarkerSet markers, List<ParsedFile> files) {
+        this.markers = markers;
+        for (ParsedFile file : files) {
+            for (SourceClass sourceClass : file.getClasses()) {
+                // Duplicate names (e.g. the same class in two source sets) keep the first one seen
+                classesByName.putIfAbsent(sourceClass.getQualifiedName(), sourceClass);
+            }
+        }
+    }
+
+    Verdict getVerdict(SourceClass sourceClass) {
+        Verdict cached = verdicts.get(sourceClass);
+        if (cached == IN_PROGRESS) {
+            return Verdict.NONE; // Cycle - the class can't inherit a marker from itself
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        verdicts.put(sourceClass, IN_PROGRESS);
+        Verdict verdict = computeVerdict(sourceClass);
+        verdicts.put(sourceClass, verdict);
+        return verdict;
+    }
+
+    private Verdict computeVerdict(SourceClass sourceClass) {
+        for (String annotation : sourceClass.getAnnotations()) {
+            if (markers.matches(annotation)) {
+                return new Verdict(Reason.ANNOTATION, sourceClass);
+            }
+        }
+
+        // Same as the plugin: interfaces declare their super-interfaces in the extends list
+        List<String> interfaces = sourceClass.getKind() == SourceClass.Kind.INTERFACE
+                ? sourceClass.getExtendsTypes()
+                : sourceClass.getImplementsTypes();
+        for (String implemented : interfaces) {
+            if (markers.matches(implemented)) {
+                return new Verdict(Reason.INTERFACE, sourceClass);
+            }
+        }
+
+        // Superclass first, then super-interfaces; getVerdict() guards against cycles
+        Verdict inherited = findInherited(sourceClass.getExtendsTypes(), sourceClass);
+        if (inherited == null) {
+            inherited = findInherited(sourceClass.getImplementsTypes(), sourceClass);
+        }
+        return inherited != null ? new Verdict(Reason.INHERITED, inherited.via) : Verdict.NONE;
+    }
+
+    private Verdict findInherited(List<String> supertypes, SourceClass context) {
+        for (String name : supertypes) {
+            SourceClass supertype = resolve(name, context);
+            if (supertype == null) {
+                continue;
+            }
+            Verdict verdict = getVerdict(supertype);
+            if (verdict.isAutoserializable()) {
+                return verdict;
+            }
+        }
+        return null;
+    }
+
+    private SourceClass resolve(String name, SourceClass context) {
+        int dot = name.indexOf('.');
+        if (dot >= 0) {
+            SourceClass exact = classesByName.get(name);
+            if (exact != null) {
+                return exact;
+            }
+            // "Outer.Inner" where Outer itself needs resolving
+            SourceClass first = resolveSimple(name.substring(0, dot), context);
+            return first != null ? classesByName.get(first.getQualifiedName() + name.substring(dot)) : null;
+        }
+        return resolveSimple(name, context);
+    }
+
+    private SourceClass resolveSimple(String name, SourceClass context) {
+        for (SourceClass outer = context; outer != null; outer = outer.getOuter()) {
+            SourceClass member = classesByName.get(outer.getQualifiedName() + "." + name);
+            if (member != null) {
+                return member;
+            }
+        }
+
+        ParsedFile file = context.getFile();
+        String suffix = "." + name;
+        for (String imported : file.getSingleImports()) {
+            if (imported.endsWith(suffix)) {
+                return classesByName.get(imported); // Explicit import wins even if it's a library type
+            }
+        }
+
+        String packageName = file.getPackageName();
+        SourceClass samePackage = classesByName.get(packageName.isEmpty() ? name : packageName + suffix);
+        if (samePackage != null) {
+            return samePackage;
+        }
+
+        for (String onDemand : file.getOnDemandImports()) {
+            SourceClass imported = classesByName.get(onDemand + suffix);
+            if (imported != null) {
+                return imported;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,445 @@
+package com.brotech.autoserializablechecker.scanner;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Minimal single-pass Java parser that extracts only what detection needs: package, imports
+ * and class headers (annotations, extends, implements).
+ * Performance: works directly on the (memory-mapped) bytes, skips comments and literals without
+ * decoding them, and only allocates strings for names it keeps. Method bodies are reduced to
+ * brace counting. Non-ASCII bytes are treated as identifier characters, which is correct for UTF-8.
+ */
+final class JavaSourceParser {
+
+    private static final int EOF = 0;
+    private static final int IDENT = 1;
+    private static final int PUNCT = 2;
+
+    private static final byte[] PACKAGE = ascii("package");
+    private static final byte[] IMPORT = ascii("import");
+    private static final byte[] STATIC = ascii("static");
+    private static final byte[] CLASS = ascii("class");
+    private static final byte[] INTERFACE = ascii("interface");
+    private static final byte[] ENUM = ascii("enum");
+    private static final byte[] RECORD = ascii("record");
+    private static final byte[] EXTENDS = ascii("extends");
+    private static final byte[] IMPLEMENTS = ascii("implements");
+    private static final byte[] PERMITS = ascii("permits");
+
+    private final ByteBuffer buf;
+    private final int limit;
+    private int pos;
+    private int line = 1;
+
+    // Current token
+    private int tokType;
+    private int tokStart;
+    private int tokEnd;
+    private int tokLine;
+    private byte tokPunct;
+    private boolean pushedBack;
+
+    // Previous token, used to tell "Foo.class" apart from a declaration
+    private byte prevPunct;
+
+    private JavaSourceParser(ByteBuffer buf) {
+        this.buf = buf;
+        this.limit = buf.limit();
+    }
+
+    static ParsedFile parse(Path path, ByteBuffer content) {
+        return new JavaSourceParser(content).parseFile(path);
+    }
+
+    private ParsedFile parseFile(Path path) {
+        String packageName = "";
+        List<String> singleImports = new ArrayList<>();
+        List<String> onDemandImports = new ArrayList<>();
+        List<SourceClass> classes = new ArrayList<>();
+        List<String> pendingAnnotations = new ArrayList<>();
+
+        // Stack of enclosing member classes with the brace depth of their bodies
+        Deque<SourceClass> classStack = new ArrayDeque<>();
+        Deque<Integer> bodyDepths = new ArrayDeque<>();
+        int depth = 0;
+
+        while (next() != EOF) {
+            if (tokType == IDENT) {
+                if (depth == 0 && tokenIs(PACKAGE)) {
+                    next();
+                    packageName = readQualifiedName();
+                    continue;
+                }
+                if (depth == 0 && tokenIs(IMPORT)) {
+                    parseImport(singleImports, onDemandImports);
+                    continue;
+                }
+
+                SourceClass.Kind kind = declarationKind();
+                if (kind != null) {
+                    boolean member = classStack.isEmpty() ? depth == 0 : depth == bodyDepths.peek();
+                    SourceClass outer = classStack.peek();
+                    SourceClass declared = parseDeclaration(kind, packageName, outer, pendingAnnotations);
+                    pendingAnnotations.clear();
+                    if (declared == null) {
+                        continue;
+                    }
+                    if (tokType == PUNCT && tokPunct == '{') {
+                        depth++;
+                        // Local classes inside method bodies have no stable name - only count their braces
+                        if (member) {
+                            classes.add(declared);
+                            classStack.push(declared);
+                            bodyDepths.push(depth);
+                        }
+                    }
+                }
+                prevPunct = 0;
+                continue;
+            }
+
+            byte punct = tokPunct;
+            if (punct == '@') {
+                next();
+                if (tokType == IDENT && tokenIs(INTERFACE)) {
+                    // Annotation type declaration: "@interface Name"
+                    boolean member = classStack.isEmpty() ? depth == 0 : depth == bodyDepths.peek();
+                    SourceClass declared = parseDeclaration(
+                            SourceClass.Kind.ANNOTATION, packageName, classStack.peek(), pendingAnnotations);
+                    pendingAnnotations.clear();
+                    if (declared != null && tokType == PUNCT && tokPunct == '{') {
+                        depth++;
+                        if (member) {
+                            classes.add(declared);
+                            classStack.push(declared);
+                            bodyDepths.push(depth);
+                        }
+                    }
+                } else if (tokType == IDENT) {
+                    pendingAnnotations.add(readQualifiedName());
+                    skipAnnotationArguments();
+                }
+            } else if (punct == '{') {
+                depth++;
+                pendingAnnotations.clear();
+            } else if (punct == '}') {
+                if (!bodyDepths.isEmpty() && bodyDepths.peek() == depth) {
+                    bodyDepths.pop();
+                    classStack.pop();
+                }
+                depth = Math.max(0, depth - 1);
+                pendingAnnotations.clear();
+            } else if (punct == ';') {
+                pendingAnnotations.clear();
+            }
+            prevPunct = punct;
+        }
+
+        return new ParsedFile(path, packageName, singleImports, onDemandImports, classes);
+    }
+
+    private SourceClass.Kind declarationKind() {
+        if (prevPunct == '.') {
+            return null; // "Foo.class" or "x.record"
+        }
+        if (tokenIs(CLASS)) {
+            return SourceClass.Kind.CLASS;
+        }
+        if (tokenIs(INTERFACE)) {
+            return SourceClass.Kind.INTERFACE;
+        }
+        if (tokenIs(ENUM)) {
+            return SourceClass.Kind.ENUM;
+        }
+        if (tokenIs(RECORD)) {
+            // "record" is a contextual keyword: only a declaration when followed by "Name(" or "Name<"
+            int savedPos = pos;
+            int savedLine = line;
+            int savedTokLine = tokLine;
+            boolean declaration = next() == IDENT && next() == PUNCT && (tokPunct == '(' || tokPunct == '<');
+            pos = savedPos;
+            line = savedLine;
+            tokLine = savedTokLine;
+            pushedBack = false;
+            tokType = IDENT;
+            return declaration ? SourceClass.Kind.RECORD : null;
+        }
+        return null;
+    }
+
+    /**
+     * Parses a declaration header after its keyword. On return the current token is the
+     * opening brace of the body, or whatever ended the header early.
+     */
+    private SourceClass parseDeclaration(SourceClass.Kind kind, String packageName,
+                                         SourceClass outer, List<String> annotations) {
+        int declarationLine = tokLine;
+        if (next() != IDENT) {
+            pushedBack = true;
+            return null;
+        }
+        String name = tokenText();
+
+        List<String> extendsTypes = new ArrayList<>();
+        List<String> implementsTypes = new ArrayList<>();
+        List<String> target = null;
+
+        while (next() != EOF) {
+            if (tokType == PUNCT) {
+                byte punct = tokPunct;
+                if (punct == '{') {
+                    break;
+                }
+                if (punct == ';' || punct == '}') {
+                    pushedBack = true; // Let the main loop account for it
+                    break;
+                }
+                if (punct == '<') {
+                    skipBalanced('<', '>');
+                } else if (punct == '(') {
+                    skipBalanced('(', ')');
+                } else if (punct == '@') {
+                    next();
+                    readQualifiedName();
+                    skipAnnotationArguments();
+                }
+                continue;
+            }
+
+            if (tokenIs(EXTENDS)) {
+                target = extendsTypes;
+            } else if (tokenIs(IMPLEMENTS)) {
+                target = implementsTypes;
+            } else if (tokenIs(PERMITS)) {
+                target = null;
+            } else if (target != null) {
+                target.add(readQualifiedName());
+            }
+        }
+
+        String qualifiedName;
+        if (outer != null) {
+            qualifiedName = outer.getQualifiedName() + "." + name;
+        } else {
+            qualifiedName = packageName.isEmpty() ? name : packageName + "." + name;
+        }
+        return new SourceClass(name, qualifiedName, outer, kind, declarationLine,
+                annotations, extendsTypes, implementsTypes);
+    }
+
+    private void parseImport(List<String> singleImports, List<String> onDemandImports) {
+        next();
+        boolean isStatic = tokType == IDENT && tokenIs(STATIC);
+        if (isStatic) {
+            next();
+        }
+        StringBuilder name = new StringBuilder();
+        boolean onDemand = false;
+        while (tokType != EOF) {
+            if (tokType == IDENT) {
+                name.append(tokenText());
+            } else if (tokPunct == '.') {
+                name.append('.');
+            } else if (tokPunct == '*') {
+                onDemand = true;
+            } else if (tokPunct == ';') {
+                break;
+            }
+            next();
+        }
+        if (isStatic) {
+            return; // Static imports never bring types relevant to the hierarchy walk
+        }
+        if (onDemand) {
+            int length = name.length();
+            if (length > 0 && name.charAt(length - 1) == '.') {
+                name.setLength(length - 1);
+            }
+            onDemandImports.add(name.toString());
+        } else if (name.length() > 0) {
+            singleImports.add(name.toString());
+        }
+    }
+
+    /**
+     * Reads "a.b.C" starting at the current identifier token. Leaves the first token after
+     * the name pushed back so the caller sees it on the next call to {@link #next()}.
+     */
+    private String readQualifiedName() {
+        if (tokType != IDENT) {
+            pushedBack = true;
+            return "";
+        }
+        StringBuilder name = new StringBuilder(tokenText());
+        while (true) {
+            if (next() != PUNCT || tokPunct != '.') {
+                break;
+            }
+            if (next() != IDENT) {
+                break;
+            }
+            name.append('.').append(tokenText());
+        }
+        pushedBack = true;
+        return name.toString();
+    }
+
+    private void skipAnnotationArguments() {
+        if (next() == PUNCT && tokPunct == '(') {
+            skipBalanced('(', ')');
+        } else {
+            pushedBack = true;
+        }
+    }
+
+    /**
+     * Skips up to and including the bracket matching the current (opening) token.
+     */
+    private void skipBalanced(char open, char close) {
+        int nesting = 1;
+        while (nesting > 0 && next() != EOF) {
+            if (tokType == PUNCT) {
+                if (tokPunct == open) {
+                    nesting++;
+                } else if (tokPunct == close) {
+                    nesting--;
+                } else if (tokPunct == '{' || tokPunct == ';') {
+                    // Malformed header - don't swallow the class body
+                    pushedBack = true;
+                    return;
+                }
+            }
+        }
+    }
+
+    private int next() {
+        if (pushedBack) {
+            pushedBack = false;
+            return tokType;
+        }
+        while (pos < limit) {
+            byte b = buf.get(pos);
+            if (b == '\n') {
+                line++;
+                pos++;
+            } else if (b == ' ' || b == '\t' || b == '\r' || b == '\f') {
+                pos++;
+            } else if (b == '/' && pos + 1 < limit && buf.get(pos + 1) == '/') {
+                skipLineComment();
+            } else if (b == '/' && pos + 1 < limit && buf.get(pos + 1) == '*') {
+                skipBlockComment();
+            } else if (b == '"') {
+                skipStringLiteral();
+            } else if (b == '\'') {
+                skipQuoted((byte) '\'');
+            } else if (isIdentifierPart(b)) {
+                tokStart = pos;
+                tokLine = line;
+                do {
+                    pos++;
+                } while (pos < limit && isIdentifierPart(buf.get(pos)));
+                tokEnd = pos;
+                tokType = IDENT;
+                return IDENT;
+            } else {
+                tokLine = line;
+                tokPunct = b;
+                pos++;
+                tokType = PUNCT;
+                return PUNCT;
+            }
+        }
+        tokType = EOF;
+        return EOF;
+    }
+
+    private void skipLineComment() {
+        pos += 2;
+        while (pos < limit && buf.get(pos) != '\n') {
+            pos++;
+        }
+    }
+
+    private void skipBlockComment() {
+        pos += 2;
+        while (pos < limit) {
+            byte b = buf.get(pos++);
+            if (b == '\n') {
+                line++;
+            } else if (b == '*' && pos < limit && buf.get(pos) == '/') {
+                pos++;
+                return;
+            }
+        }
+    }
+
+    private void skipStringLiteral() {
+        if (pos + 2 < limit && buf.get(pos + 1) == '"' && buf.get(pos + 2) == '"') {
+            // Text block
+            pos += 3;
+            while (pos < limit) {
+                byte b = buf.get(pos++);
+                if (b == '\n') {
+                    line++;
+                } else if (b == '\\') {
+                    pos++;
+                } else if (b == '"' && pos + 1 < limit && buf.get(pos) == '"' && buf.get(pos + 1) == '"') {
+                    pos += 2;
+                    return;
+                }
+            }
+            return;
+        }
+        skipQuoted((byte) '"');
+    }
+
+    private void skipQuoted(byte quote) {
+        pos++;
+        while (pos < limit) {
+            byte b = buf.get(pos++);
+            if (b == '\\') {
+                pos++;
+            } else if (b == quote) {
+                return;
+            } else if (b == '\n') {
+                line++;
+                return; // Unterminated literal - resynchronize at end of line
+            }
+        }
+    }
+
+    private boolean tokenIs(byte[] keyword) {
+        if (tokEnd - tokStart != keyword.length) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length; i++) {
+            if (buf.get(tokStart + i) != keyword[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String tokenText() {
+        byte[] bytes = new byte[tokEnd - tokStart];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buf.get(tokStart + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isIdentifierPart(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                || b == '_' || b == '$' || b < 0;
+    }
+
+    private static byte[] ascii(String keyword) {
+        return keyword.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,38 @@
+package com.brotech.autoserializablechecker.scanner;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Marker names that make a class AutoSerializable.
+ * Defaults and matching rules mirror {@code AutoserializableSettingsState.DEFAULT_MARKERS}
+ * and {@code AutoserializableMarkerMatcher} in the IDE plugin: a name matches if it equals a marker or ends with "." + marker.
+ */
+public final class MarkerSet {
+
+    public static final List<String> DEFAULT_MARKERS = List.of(
+            "AutoSerializable",
+            "com.brotech.AutoSerializable"
+    );
+
+    private final Set<String> markers;
+    private final String[] suffixes;
+
+    public MarkerSet(List<String> markers) {
+        this.markers = Set.copyOf(markers);
+        // Precompute ".Name" suffixes once instead of concatenating on every check
+        this.suffixes = this.markers.stream().map(marker -> "." + marker).toArray(String[]::new);
+    }
+
+    public boolean matches(String name) {
+        if (markers.contains(name)) {
+            return true;
+        }
+        for (String suffix : suffixes) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package com.brotech.autoserializablechecker.scanner;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Package, imports and class headers of one source file.
+ */
+public final class ParsedFile {
+
+    private final Path path;
+    private final String packageName;
+    private final List<String> singleImports;
+    private final List<String> onDemandImports;
+    private final List<SourceClass> classes;
+
+    ParsedFile(Path path, String packageName, List<String> singleImports,
+               List<String> onDemandImports, List<SourceClass> classes) {
+        this.path = path;
+        this.packageName = packageName;
+        this.singleImports = List.copyOf(singleImports);
+        this.onDemandImports = List.copyOf(onDemandImports);
+        this.classes = List.copyOf(classes);
+        for (SourceClass sourceClass : classes) {
+            sourceClass.setFile(this);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Package name, empty for the default package.
+     */
+    public String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * Single-type imports, e.g. {@code com.brotech.AutoSerializable}.
+     */
+    public List<String> getSingleImports() {
+        return singleImports;
+    }
+
+    /**
+     * On-demand imports without the trailing {@code .*}, e.g. {@code com.brotech}.
+     */
+    public List<String> getOnDemandImports() {
+        return onDemandImports;
+    }
+
+    public List<SourceClass> getClasses() {
+        return classes;
+    }
+}
@@ -0,0 +1,147 @@
+package com.brotech.autoserializablechecker.scanner;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Result of a scan, written as JSON for CI tooling.
+ */
+public final class ScanReport {
+
+    public static final int FORMAT_VERSION = 1;
+
+    public static final class Finding {
+        private final String className;
+        private final String file;
+        private final int line;
+        private final String reason;
+        private final String declaredBy;
+
+        Finding(String className, String file, int line, String reason, String declaredBy) {
+            this.className = className;
+            this.file = file;
+            this.line = line;
+            this.reason = reason;
+            this.declaredBy = declaredBy;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        /**
+         * "annotation", "interface" or "inherited".
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * The class that carries the marker - the class itself unless inherited.
+         */
+        public String getDeclaredBy() {
+            return declaredBy;
+        }
+    }
+
+    private final int filesScanned;
+    private final int classesScanned;
+    private final long durationMs;
+    private final List<Finding> findings;
+    private final List<String> errors;
+
+    ScanReport(int filesScanned, int classesScanned, long durationMs, List<Finding> findings, List<String> errors) {
+        this.filesScanned = filesScanned;
+        this.classesScanned = classesScanned;
+        this.durationMs = durationMs;
+        this.findings = List.copyOf(findings);
+        this.errors = List.copyOf(errors);
+    }
+
+    public int getFilesScanned() {
+        return filesScanned;
+    }
+
+    public int getClassesScanned() {
+        return classesScanned;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public List<Finding> getFindings() {
+        return findings;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void writeJson(Writer out) throws IOException {
+        out.write("{\n");
+        out.write("  \"version\": " + FORMAT_VERSION + ",\n");
+        out.write("  \"filesScanned\": " + filesScanned + ",\n");
+        out.write("  \"classesScanned\": " + classesScanned + ",\n");
+        out.write("  \"durationMs\": " + durationMs + ",\n");
+        out.write("  \"autoserializable\": [");
+        for (int i = 0; i < findings.size(); i++) {
+            Finding finding = findings.get(i);
+            out.write(i == 0 ? "\n" : ",\n");
+            out.write("    {\"class\": " + quote(finding.className)
+                    + ", \"file\": " + quote(finding.file)
+                    + ", \"line\": " + finding.line
+                    + ", \"reason\": " + quote(finding.reason)
+                    + ", \"declaredBy\": " + quote(finding.declaredBy) + "}");
+        }
+        out.write(findings.isEmpty() ? "],\n" : "\n  ],\n");
+        out.write("  \"errors\": [");
+        for (int i = 0; i < errors.size(); i++) {
+            out.write(i == 0 ? "\n    " : ",\n    ");
+            out.write(quote(errors.get(i)));
+        }
+        out.write(errors.isEmpty() ? "]\n" : "\n  ]\n");
+        out.write("}\n");
+        out.flush();
+    }
+
+    public static String quote(String value) {
+        StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                case '\t':
+                    result.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+            }
+        }
+        return result.append('"').toString();
+    }
+}
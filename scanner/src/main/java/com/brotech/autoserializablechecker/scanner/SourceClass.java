@@ -0,0 +1,83 @@
+package com.brotech.autoserializablechecker.scanner;
+
+import java.util.List;
+
+/**
+ * A class declaration header as written in a source file: name, annotations and supertypes.
+ * Names are unresolved; {@link HierarchyResolver} maps them to other source classes.
+ */
+public final class SourceClass {
+
+    public enum Kind {
+        CLASS,
+        INTERFACE,
+        ENUM,
+        RECORD,
+        ANNOTATION
+    }
+
+    private final String name;
+    private final String qualifiedName;
+    private final SourceClass outer;
+    private final Kind kind;
+    private final int line;
+    private final List<String> annotations;
+    private final List<String> extendsTypes;
+    private final List<String> implementsTypes;
+    private ParsedFile file;
+
+    SourceClass(String name, String qualifiedName, SourceClass outer, Kind kind, int line,
+                List<String> annotations, List<String> extendsTypes, List<String> implementsTypes) {
+        this.name = name;
+        this.qualifiedName = qualifiedName;
+        this.outer = outer;
+        this.kind = kind;
+        this.line = line;
+        this.annotations = List.copyOf(annotations);
+        this.extendsTypes = List.copyOf(extendsTypes);
+        this.implementsTypes = List.copyOf(implementsTypes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    /**
+     * Enclosing class for member classes, {@code null} for top-level ones.
+     */
+    public SourceClass getOuter() {
+        return outer;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public List<String> getAnnotations() {
+        return annotations;
+    }
+
+    public List<String> getExtendsTypes() {
+        return extendsTypes;
+    }
+
+    public List<String> getImplementsTypes() {
+        return implementsTypes;
+    }
+
+    public ParsedFile getFile() {
+        return file;
+    }
+
+    void setFile(ParsedFile file) {
+        this.file = file;
+    }
+}
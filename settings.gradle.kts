@@ -5,4 +5,7 @@ pluginManagement {
     }
 }
 
-rootProject.name = "autoserializable-checker"
\ No newline at end of file
+rootProject.name = "autoserializable-checker"
+
+include("scanner")
+include("gradle-plugin")
@@ -0,0 +1,49 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.JavaCodeInsightTestFixture;
+import com.intellij.testFramework.fixtures.JavaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.TestFixtureBuilder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Light IntelliJ project for benchmarks that need PSI, indexes and project services.
+ * Set up once per trial; benchmark methods then run read actions from JMH's threads.
+ */
+final class BenchmarkFixture {
+
+    private final JavaCodeInsightTestFixture fixture;
+
+    BenchmarkFixture() throws Exception {
+        TestFixtureBuilder<IdeaProjectTestFixture> builder = IdeaTestFixtureFactory.getFixtureFactory()
+                .createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR, "autoserializable-benchmark");
+        fixture = JavaTestFixtureFactory.getFixtureFactory().createCodeInsightFixture(builder.getFixture());
+        EdtTestUtil.runInEdtAndWait(fixture::setUp);
+        // Marker types the synthetic sources refer to
+        addFile("com/brotech/AutoSerializable.java",
+                "package com.brotech;\npublic @interface AutoSerializable {}\n");
+        addFile("com/yourcompany/AutoSerializable.java",
+                "package com.yourcompany;\npublic interface AutoSerializable {}\n");
+    }
+
+    @NotNull
+    Project getProject() {
+        return fixture.getProject();
+    }
+
+    @NotNull
+    PsiFile addFile(@NotNull String path, @NotNull String text) {
+        PsiFile[] result = new PsiFile[1];
+        EdtTestUtil.runInEdtAndWait(() -> result[0] = fixture.addFileToProject(path, text));
+        return result[0];
+    }
+
+    void tearDown() throws Exception {
+        EdtTestUtil.runInEdtAndWait(fixture::tearDown);
+    }
+}
@@ -0,0 +1,57 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiJavaFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * {@link AutoserializableUtil#isAutoserializable} on the leaf of an inheritance chain whose root
+ * carries the marker: from a warm cache, and cold after the whole hierarchy was invalidated.
+ */
+@State(Scope.Benchmark)
+public class DetectionBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int depth;
+
+    private BenchmarkFixture fixture;
+    private AutoserializableHierarchy hierarchy;
+    private PsiClass leaf;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = new BenchmarkFixture();
+        String packageName = "chain" + depth;
+        PsiJavaFile leafFile = null;
+        for (int level = 0; level <= depth; level++) {
+            leafFile = (PsiJavaFile) fixture.addFile(packageName + "/Level" + level + ".java",
+                    SyntheticSources.chainClass(packageName, level));
+        }
+        PsiJavaFile file = leafFile;
+        leaf = ReadAction.compute(() -> file.getClasses()[0]);
+        hierarchy = AutoserializableHierarchy.getInstance(fixture.getProject());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        fixture.tearDown();
+    }
+
+    @Benchmark
+    public boolean cached() {
+        return ReadAction.compute(() -> AutoserializableUtil.isAutoserializable(leaf));
+    }
+
+    @Benchmark
+    public boolean cold() {
+        // Clears all verdicts and expires every cached value that depends on them
+        hierarchy.invalidateAll();
+        return ReadAction.compute(() -> AutoserializableUtil.isAutoserializable(leaf));
+    }
+}
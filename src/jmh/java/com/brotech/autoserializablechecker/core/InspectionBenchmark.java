@@ -0,0 +1,75 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collection;
+
+/**
+ * One {@link AutoserializableInspection} pass over a synthetic file holding a deep hierarchy,
+ * the way the daemon runs it: a fresh visitor per pass, every class visited.
+ * {@code steadyState} is a re-highlight with warm caches; {@code afterHierarchyChange} first
+ * invalidates the hierarchy, like an edit to the root class would.
+ */
+@State(Scope.Benchmark)
+public class InspectionBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int depth;
+
+    private BenchmarkFixture fixture;
+    private AutoserializableHierarchy hierarchy;
+    private InspectionManager inspectionManager;
+    private PsiFile file;
+    private PsiClass[] classes;
+    private final AutoserializableInspection inspection = new AutoserializableInspection();
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = new BenchmarkFixture();
+        String packageName = "deep" + depth;
+        file = fixture.addFile(packageName + "/Nodes.java", SyntheticSources.deepHierarchyFile(packageName, depth));
+        classes = ReadAction.compute(() -> {
+            Collection<PsiClass> found = PsiTreeUtil.findChildrenOfType(file, PsiClass.class);
+            return found.toArray(PsiClass.EMPTY_ARRAY);
+        });
+        hierarchy = AutoserializableHierarchy.getInstance(fixture.getProject());
+        inspectionManager = InspectionManager.getInstance(fixture.getProject());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        fixture.tearDown();
+    }
+
+    @Benchmark
+    public int steadyState() {
+        return ReadAction.compute(this::runPass);
+    }
+
+    @Benchmark
+    public int afterHierarchyChange() {
+        hierarchy.invalidateAll();
+        return ReadAction.compute(this::runPass);
+    }
+
+    private int runPass() {
+        ProblemsHolder holder = new ProblemsHolder(inspectionManager, file, true);
+        PsiElementVisitor visitor = inspection.buildVisitor(holder, true);
+        for (PsiClass psiClass : classes) {
+            psiClass.accept(visitor);
+        }
+        return holder.getResultCount();
+    }
+}
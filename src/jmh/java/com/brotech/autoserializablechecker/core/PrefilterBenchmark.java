@@ -0,0 +1,83 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The "might this file contain a marker" pre-filter across file sizes: the in-place text search
+ * on chars and raw bytes, and the full {@link AutoserializableUtil#mightContainAutoserializable}
+ * path for a project file, which is answered from the index.
+ */
+public class PrefilterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Text {
+        @Param({"1024", "65536", "1048576"})
+        public int size;
+
+        @Param({"true", "false"})
+        public boolean withMarker;
+
+        private String text;
+        private byte[] bytes;
+        private AutoserializableTextMatcher matcher;
+
+        @Setup
+        public void setUp() {
+            text = SyntheticSources.fileOfSize("prefilter", "Sample", size, withMarker);
+            bytes = text.getBytes(StandardCharsets.UTF_8);
+            matcher = new AutoserializableTextMatcher(List.of("AutoSerializable"));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ProjectFile {
+        @Param({"1024", "65536", "1048576"})
+        public int size;
+
+        @Param({"true", "false"})
+        public boolean withMarker;
+
+        private BenchmarkFixture fixture;
+        private Project project;
+        private VirtualFile file;
+
+        @Setup
+        public void setUp() throws Exception {
+            fixture = new BenchmarkFixture();
+            project = fixture.getProject();
+            file = fixture.addFile("prefilter/Sample.java",
+                    SyntheticSources.fileOfSize("prefilter", "Sample", size, withMarker)).getVirtualFile();
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            fixture.tearDown();
+        }
+    }
+
+    @Benchmark
+    public boolean chars(Text state) {
+        return AutoserializableUtil.mightContainMarkerText(state.text);
+    }
+
+    @Benchmark
+    public boolean bytes(Text state) {
+        return state.matcher.containsAny(state.bytes);
+    }
+
+    @Benchmark
+    public boolean projectFile(ProjectFile state) {
+        return ReadAction.compute(() -> AutoserializableUtil.mightContainAutoserializable(state.project, state.file));
+    }
+}
@@ -0,0 +1,72 @@
+package com.brotech.autoserializablechecker.core;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Generates Java sources for benchmarks: inheritance chains and files of a given size.
+ */
+final class SyntheticSources {
+
+    private SyntheticSources() {
+    }
+
+    /**
+     * {@code Level0} is annotated with the marker, {@code Level<i>} extends {@code Level<i-1>}.
+     * One file per class, so every step of the chain is a cross-file resolve.
+     */
+    @NotNull
+    static String chainClass(@NotNull String packageName, int level) {
+        StringBuilder text = new StringBuilder("package ").append(packageName).append(";\n\n");
+        if (level == 0) {
+            text.append("@com.brotech.AutoSerializable\npublic class Level0 {\n");
+        } else {
+            text.append("public class Level").append(level).append(" extends Level").append(level - 1).append(" {\n");
+        }
+        appendMembers(text, level);
+        return text.append("}\n").toString();
+    }
+
+    /**
+     * One file with {@code depth} classes, each extending the previous one; the first implements
+     * the marker interface. Every class has a few fields and methods, like real model classes.
+     */
+    @NotNull
+    static String deepHierarchyFile(@NotNull String packageName, int depth) {
+        StringBuilder text = new StringBuilder("package ").append(packageName).append(";\n\n");
+        for (int i = 0; i < depth; i++) {
+            text.append("class Node").append(i);
+            text.append(i == 0 ? " implements com.yourcompany.AutoSerializable" : " extends Node" + (i - 1));
+            text.append(" {\n");
+            appendMembers(text, i);
+            text.append("}\n\n");
+        }
+        return text.toString();
+    }
+
+    /**
+     * Roughly {@code size} characters of class body; the marker appears at the very end if
+     * requested, which is the worst case for a text search.
+     */
+    @NotNull
+    static String fileOfSize(@NotNull String packageName, @NotNull String className, int size, boolean withMarker) {
+        StringBuilder text = new StringBuilder(size + 256);
+        text.append("package ").append(packageName).append(";\n\npublic class ").append(className).append(" {\n");
+        for (int i = 0; text.length() < size; i++) {
+            appendMembers(text, i);
+        }
+        text.append("}\n");
+        if (withMarker) {
+            text.append("\n@com.brotech.AutoSerializable\nclass ").append(className).append("Marked {}\n");
+        }
+        return text.toString();
+    }
+
+    private static void appendMembers(@NotNull StringBuilder text, int index) {
+        text.append("    private String name").append(index).append(";\n");
+        text.append("    private transient int cache").append(index).append(";\n");
+        text.append("    public String getName").append(index).append("() {\n");
+        text.append("        // Serializable-looking text that is not a marker: Serializable, Autowired\n");
+        text.append("        return name").append(index).append(" == null ? \"\" : name").append(index).append(".trim();\n");
+        text.append("    }\n");
+    }
+}
@@ -0,0 +1,335 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionPlaces;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.actionSystem.impl.SimpleDataContext;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.builders.JavaModuleFixtureBuilder;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.JavaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.TestFixtureBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * End-to-end load test on a generated project, run with {@code ./gradlew loadTest}.
+ * Measures indexing, full inspection passes (cold and warm), the manual action on a file, a
+ * package and the whole source root, the file listener during a simulated checkout, and the
+ * heap retained by the plugin's caches. Writes a {@link LoadTestReport}; with
+ * {@code --compare <previous report>} exits with 1 if a cost grew beyond {@code --max-regression}.
+ * <p>
+ * Options: {@code --classes} (default 10000), {@code --density} (fraction of AutoSerializable
+ * classes, default 0.1), {@code --depth} (hierarchy depth, default 8), {@code --checkout-step}
+ * (every n-th file changes in the simulated checkout, default 5), {@code --action-runs}
+ * (default 5), {@code --output}, {@code --compare}, {@code --max-regression} (default 1.3).
+ */
+public final class LoadTestMain {
+
+    private static final long WAIT_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private int classes = 10_000;
+    private double density = 0.1;
+    private int depth = 8;
+    private int checkoutStep = 5;
+    private int actionRuns = 5;
+    private Path output = Paths.get("build/reports/loadTest/report.json");
+    private Path compare;
+    private double maxRegression = 1.3;
+
+    private final LoadTestReport report = new LoadTestReport();
+    private LoadTestProject generated;
+    private IdeaProjectTestFixture fixture;
+    private Project project;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestMain loadTest = new LoadTestMain();
+        loadTest.parseArgs(args);
+        int regressions;
+        try {
+            regressions = loadTest.run();
+        } catch (Throwable e) {
+            e.printStackTrace();
+            regressions = -1;
+        }
+        // The test application's threads would keep the JVM alive
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--classes":
+                    classes = Integer.parseInt(requireValue(args, ++i, arg));
+                    break;
+                case "--density":
+                    density = Double.parseDouble(requireValue(args, ++i, arg));
+                    break;
+                case "--depth":
+                    depth = Integer.parseInt(requireValue(args, ++i, arg));
+                    break;
+                case "--checkout-step":
+                    checkoutStep = Integer.parseInt(requireValue(args, ++i, arg));
+                    break;
+                case "--action-runs":
+                    actionRuns = Integer.parseInt(requireValue(args, ++i, arg));
+                    break;
+                case "--output":
+                    output = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "--compare":
+                    compare = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "--max-regression":
+                    maxRegression = Double.parseDouble(requireValue(args, ++i, arg));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        report.setConfig("classes", classes);
+        report.setConfig("density", density);
+        report.setConfig("depth", depth);
+        report.setConfig("checkoutStep", checkoutStep);
+    }
+
+    private int run() throws Exception {
+        Path root = Files.createTempDirectory("autoserializable-load");
+        Disposable disposable = Disposer.newDisposable();
+        AutoserializableSettingsState settings = null;
+        boolean notificationsEnabled = false;
+        try {
+            long start = System.nanoTime();
+            generated = new LoadTestProject(root.resolve("src"), classes, density, depth);
+            generated.generate();
+            report.putMillis("generate.ms", System.nanoTime() - start);
+
+            start = System.nanoTime();
+            TestFixtureBuilder<IdeaProjectTestFixture> builder = JavaTestFixtureFactory.createFixtureBuilder("autoserializable-load");
+            builder.addModule(JavaModuleFixtureBuilder.class).addSourceContentRoot(generated.getSourceRoot().toString());
+            fixture = builder.getFixture();
+            EdtTestUtil.runInEdtAndWait(fixture::setUp);
+            project = fixture.getProject();
+            DumbService.getInstance(project).waitForSmartMode();
+            report.putMillis("indexing.ms", System.nanoTime() - start);
+
+            AutoserializableMetrics.getInstance().reset();
+            long heapBefore = getUsedHeap();
+            measureInspection();
+            report.put("heap.retainedAfterInspection.mb", (getUsedHeap() - heapBefore) / (1024.0 * 1024.0));
+
+            measureAction();
+
+            settings = AutoserializableSettingsState.getInstance();
+            notificationsEnabled = settings.isNotificationsEnabled();
+            settings.setNotificationsEnabled(true);
+            measureListener(disposable);
+            report.put("heap.retainedAtEnd.mb", (getUsedHeap() - heapBefore) / (1024.0 * 1024.0));
+
+            report.setMetrics(AutoserializableMetrics.getInstance().toJson());
+            report.write(output);
+            System.out.println("Load test report written to " + output.toAbsolutePath());
+            return compare != null ? report.compare(compare, maxRegression) : 0;
+        } finally {
+            if (settings != null) {
+                settings.setNotificationsEnabled(notificationsEnabled);
+            }
+            Disposer.dispose(disposable);
+            if (fixture != null) {
+                EdtTestUtil.runInEdtAndWait(fixture::tearDown);
+            }
+            FileUtil.delete(root.toFile());
+        }
+    }
+
+    /**
+     * Full passes over every file, the way a batch inspection run visits them: first with cold
+     * caches, then again with warm ones.
+     */
+    private void measureInspection() {
+        List<VirtualFile> files = new ArrayList<>();
+        for (Path file : generated.getFiles()) {
+            VirtualFile virtualFile = LocalFileSystem.getInstance().findFileByNioFile(file);
+            if (virtualFile != null) {
+                files.add(virtualFile);
+            }
+        }
+        AutoserializableHierarchy.getInstance(project).invalidateAll();
+        long[] cold = runInspectionPass(files);
+        long[] warm = runInspectionPass(files);
+        report.putMillis("inspection.coldPass.ms", Arrays.stream(cold).sum());
+        report.putMillis("inspection.warmPass.ms", Arrays.stream(warm).sum());
+        report.putMillis("inspection.coldFileP99.ms", percentile(cold, 0.99));
+        report.putMillis("inspection.warmFileP99.ms", percentile(warm, 0.99));
+    }
+
+    @NotNull
+    private long[] runInspectionPass(@NotNull List<VirtualFile> files) {
+        AutoserializableInspection inspection = new AutoserializableInspection();
+        InspectionManager inspectionManager = InspectionManager.getInstance(project);
+        PsiManager psiManager = PsiManager.getInstance(project);
+        long[] times = new long[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            VirtualFile file = files.get(i);
+            long start = System.nanoTime();
+            ReadAction.run(() -> {
+                PsiFile psiFile = psiManager.findFile(file);
+                if (psiFile == null) {
+                    return;
+                }
+                ProblemsHolder holder = new ProblemsHolder(inspectionManager, psiFile, false);
+                PsiElementVisitor visitor = inspection.buildVisitor(holder, false);
+                for (PsiClass psiClass : PsiTreeUtil.findChildrenOfType(psiFile, PsiClass.class)) {
+                    psiClass.accept(visitor);
+                }
+            });
+            times[i] = System.nanoTime() - start;
+        }
+        return times;
+    }
+
+    /**
+     * The manual action as invoked from the editor and the project view; each run is timed from
+     * {@code actionPerformed} until the action recorded its latency.
+     */
+    private void measureAction() throws Exception {
+        LocalFileSystem fileSystem = LocalFileSystem.getInstance();
+        VirtualFile singleFile = fileSystem.findFileByNioFile(generated.getFiles().get(0));
+        VirtualFile packageDirectory = fileSystem.findFileByNioFile(generated.getPackages().get(0));
+        VirtualFile sourceRoot = fileSystem.findFileByNioFile(generated.getSourceRoot());
+        report.putMillis("action.singleFile.ms", runAction(singleFile));
+        report.putMillis("action.package.ms", runAction(packageDirectory));
+        report.putMillis("action.sourceRoot.ms", runAction(sourceRoot));
+    }
+
+    /**
+     * Median latency of {@link #actionRuns} runs, in nanoseconds.
+     */
+    private long runAction(VirtualFile selection) throws Exception {
+        if (selection == null) {
+            throw new IllegalStateException("Generated file not found in VFS");
+        }
+        CheckAutoserializableAction action = new CheckAutoserializableAction();
+        AutoserializableMetrics metrics = AutoserializableMetrics.getInstance();
+        long[] times = new long[actionRuns];
+        for (int run = 0; run < actionRuns; run++) {
+            long before = metrics.getCount(AutoserializableMetrics.Histogram.ACTION_LATENCY);
+            AnActionEvent event = AnActionEvent.createFromDataContext(ActionPlaces.UNKNOWN, null, SimpleDataContext.builder()
+                    .add(CommonDataKeys.PROJECT, project)
+                    .add(CommonDataKeys.VIRTUAL_FILE_ARRAY, new VirtualFile[]{selection})
+                    .build());
+            long start = System.nanoTime();
+            EdtTestUtil.runInEdtAndWait(() -> action.actionPerformed(event));
+            waitUntil(() -> metrics.getCount(AutoserializableMetrics.Histogram.ACTION_LATENCY) > before);
+            times[run] = System.nanoTime() - start;
+        }
+        return percentile(times, 0.5);
+    }
+
+    /**
+     * A checkout rewriting every {@link #checkoutStep}-th file: the VFS refresh delivers the events
+     * to a real listener, whose synchronous cost on the event thread and time to flush are measured.
+     */
+    private void measureListener(@NotNull Disposable disposable) throws Exception {
+        AutoserializableFileListener listener = new AutoserializableFileListener(project, disposable);
+        AtomicLong listenerNanos = new AtomicLong();
+        AtomicInteger events = new AtomicInteger();
+        ApplicationManager.getApplication().getMessageBus().connect(disposable)
+                .subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+                    @Override
+                    public void after(@NotNull List<? extends VFileEvent> fileEvents) {
+                        long start = System.nanoTime();
+                        listener.after(fileEvents);
+                        listenerNanos.addAndGet(System.nanoTime() - start);
+                        events.addAndGet(fileEvents.size());
+                    }
+                });
+
+        AutoserializableMetrics metrics = AutoserializableMetrics.getInstance();
+        long flushesBefore = metrics.getCount(AutoserializableMetrics.Histogram.LISTENER_READ_ACTION_TIME);
+        List<Path> changed = generated.simulateCheckout(checkoutStep, 1);
+        VirtualFile sourceRoot = LocalFileSystem.getInstance().findFileByNioFile(generated.getSourceRoot());
+        long start = System.nanoTime();
+        VfsUtil.markDirtyAndRefresh(false, true, true, sourceRoot);
+        long refreshed = System.nanoTime();
+        waitUntil(() -> metrics.getCount(AutoserializableMetrics.Histogram.LISTENER_READ_ACTION_TIME) > flushesBefore);
+        long flushed = System.nanoTime();
+
+        report.put("checkout.changedFiles", changed.size());
+        report.put("listener.events", events.get());
+        report.putMillis("vfs.refresh.ms", refreshed - start);
+        report.putMillis("listener.after.ms", listenerNanos.get());
+        // Includes the listener's debounce delay and any re-indexing the checkout caused
+        report.putMillis("listener.flush.ms", flushed - refreshed);
+    }
+
+    @NotNull
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " requires a value");
+        }
+        return args[index];
+    }
+
+    private static void waitUntil(@NotNull BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Timed out waiting for the plugin to finish");
+            }
+            // Background tasks finish on the EDT
+            EdtTestUtil.runInEdtAndWait(PlatformTestUtil::dispatchAllEventsInIdeEventQueue);
+            Thread.sleep(10);
+        }
+    }
+
+    private static long percentile(@NotNull long[] values, double percentile) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static long getUsedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,138 @@
+package com.brotech.autoserializablechecker.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes a synthetic source tree for the load test: {@code classes} classes, one per file, in
+ * inheritance chains of {@code depth}. A chain's root is AutoSerializable with probability
+ * {@code density}, which makes roughly that fraction of all classes AutoSerializable. Classes
+ * also hold fields of classes from other chains, so the impact index has work to do.
+ * Generation is seeded, so the same configuration always gives the same tree.
+ */
+final class LoadTestProject {
+
+    private static final int CLASSES_PER_PACKAGE = 500;
+
+    private final Path sourceRoot;
+    private final int classes;
+    private final double density;
+    private final int depth;
+    private final List<Path> files = new ArrayList<>();
+    private final List<Path> packages = new ArrayList<>();
+
+    LoadTestProject(@NotNull Path sourceRoot, int classes, double density, int depth) {
+        this.sourceRoot = sourceRoot;
+        this.classes = classes;
+        this.density = density;
+        this.depth = depth;
+    }
+
+    void generate() throws IOException {
+        write(sourceRoot.resolve("com/brotech/AutoSerializable.java"),
+                "package com.brotech;\n\npublic @interface AutoSerializable {}\n");
+        Random random = new Random(42);
+        boolean markedChain = false;
+        for (int i = 0; i < classes; i++) {
+            int level = i % depth;
+            if (level == 0) {
+                markedChain = random.nextDouble() < density;
+            }
+            String packageName = getPackageName(i);
+            Path file = sourceRoot.resolve(packageName.replace('.', '/')).resolve(getClassName(i) + ".java");
+            if (i % CLASSES_PER_PACKAGE == 0) {
+                packages.add(file.getParent());
+            }
+            write(file, classText(i, level, markedChain, random));
+            files.add(file);
+        }
+    }
+
+    @NotNull
+    private String classText(int index, int level, boolean marked, @NotNull Random random) {
+        StringBuilder text = new StringBuilder(1024);
+        text.append("package ").append(getPackageName(index)).append(";\n\n");
+        if (level == 0 && marked) {
+            text.append("@com.brotech.AutoSerializable\n");
+        }
+        text.append("public class ").append(getClassName(index));
+        if (level > 0) {
+            text.append(" extends ").append(getQualifiedName(index - 1));
+        }
+        text.append(" {\n");
+        text.append("    private long id").append(index).append(";\n");
+        text.append("    private String name;\n");
+        text.append("    private transient int hash;\n");
+        if (index > depth) {
+            // A field of a class in an earlier chain
+            text.append("    private ").append(getQualifiedName(random.nextInt(index - depth))).append(" related;\n");
+        }
+        text.append("\n    public String getName() {\n");
+        text.append("        // Serializable-looking text that is not a marker: Serializable, Autowired\n");
+        text.append("        return name == null ? \"\" : name.trim();\n");
+        text.append("    }\n");
+        return text.append("}\n").toString();
+    }
+
+    /**
+     * Rewrites every {@code step}-th file with an extra field, as a checkout of another branch
+     * would; returns the rewritten files.
+     */
+    @NotNull
+    List<Path> simulateCheckout(int step, int round) throws IOException {
+        List<Path> changed = new ArrayList<>();
+        for (int i = 0; i < files.size(); i += step) {
+            Path file = files.get(i);
+            String text = Files.readString(file, StandardCharsets.UTF_8);
+            int end = text.lastIndexOf('}');
+            write(file, text.substring(0, end) + "    private int checkout" + round + ";\n}\n");
+            changed.add(file);
+        }
+        return changed;
+    }
+
+    @NotNull
+    Path getSourceRoot() {
+        return sourceRoot;
+    }
+
+    @NotNull
+    List<Path> getFiles() {
+        return files;
+    }
+
+    /**
+     * Package directories of {@value #CLASSES_PER_PACKAGE} classes each.
+     */
+    @NotNull
+    List<Path> getPackages() {
+        return packages;
+    }
+
+    @NotNull
+    private static String getPackageName(int index) {
+        return "gen.p" + index / CLASSES_PER_PACKAGE;
+    }
+
+    @NotNull
+    private static String getClassName(int index) {
+        return "C" + index;
+    }
+
+    @NotNull
+    private static String getQualifiedName(int index) {
+        return getPackageName(index) + '.' + getClassName(index);
+    }
+
+    private static void write(@NotNull Path file, @NotNull String text) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,124 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test results as flat name/value pairs, written as JSON with stable names so reports of
+ * different builds can be compared. Names ending in {@code .ms} or {@code .mb} are costs, where
+ * higher is worse; {@link #compare} flags those that grew beyond a factor. Numbers are always
+ * written with {@link Locale#ROOT}, so reports parse the same on every machine.
+ */
+final class LoadTestReport {
+
+    // A value must end its line, so a number written with a decimal comma is skipped, not truncated
+    private static final Pattern ENTRY = Pattern.compile("\"([^\"]+)\": (-?[0-9.]+),?$", Pattern.MULTILINE);
+
+    private final Map<String, String> config = new LinkedHashMap<>();
+    private final Map<String, Double> results = new LinkedHashMap<>();
+    private String metricsJson = "{}";
+
+    void setConfig(@NotNull String name, @NotNull Object value) {
+        config.put(name, String.valueOf(value));
+    }
+
+    void put(@NotNull String name, double value) {
+        results.put(name, value);
+    }
+
+    void putMillis(@NotNull String name, long nanos) {
+        put(name, nanos / 1_000_000.0);
+    }
+
+    void setMetrics(@NotNull String json) {
+        metricsJson = json.trim();
+    }
+
+    void write(@NotNull Path file) throws IOException {
+        StringBuilder json = new StringBuilder("{\n  \"version\": 1,\n");
+        json.append("  \"config\": {");
+        String separator = "\n";
+        for (Map.Entry<String, String> entry : config.entrySet()) {
+            json.append(separator).append("    \"").append(entry.getKey()).append("\": \"")
+                    .append(StringUtil.escapeStringCharacters(entry.getValue())).append('"');
+            separator = ",\n";
+        }
+        json.append("\n  },\n");
+        json.append("  \"environment\": {\n");
+        json.append("    \"java\": \"").append(StringUtil.escapeStringCharacters(System.getProperty("java.version"))).append("\",\n");
+        json.append("    \"processors\": \"").append(Runtime.getRuntime().availableProcessors()).append("\",\n");
+        json.append("    \"maxHeapMb\": \"").append(Runtime.getRuntime().maxMemory() >> 20).append("\"\n");
+        json.append("  },\n");
+        json.append("  \"results\": {");
+        separator = "\n";
+        for (Map.Entry<String, Double> entry : results.entrySet()) {
+            json.append(separator).append("    \"").append(entry.getKey()).append("\": ")
+                    .append(String.format(Locale.ROOT, "%.3f", entry.getValue()));
+            separator = ",\n";
+        }
+        json.append("\n  },\n");
+        json.append("  \"metrics\": ").append(metricsJson.replace("\n", "\n  ")).append("\n}\n");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Prints each result next to the previous report's and returns the number of costs that
+     * grew by more than {@code maxRatio}. Reports of different configurations aren't compared.
+     */
+    int compare(@NotNull Path previousFile, double maxRatio) throws IOException {
+        String previous = Files.readString(previousFile, StandardCharsets.UTF_8);
+        String previousConfig = getSection(previous, "config");
+        for (Map.Entry<String, String> entry : config.entrySet()) {
+            if (previousConfig == null || !previousConfig.contains("\"" + entry.getKey() + "\": \"" + entry.getValue() + "\"")) {
+                System.out.println("Not comparing with " + previousFile + ": configuration differs in " + entry.getKey());
+                return 0;
+            }
+        }
+        Map<String, Double> previousResults = new LinkedHashMap<>();
+        String section = getSection(previous, "results");
+        if (section != null) {
+            Matcher matcher = ENTRY.matcher(section);
+            while (matcher.find()) {
+                previousResults.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+            }
+        }
+
+        int regressions = 0;
+        System.out.println(String.format(Locale.ROOT, "%-36s %12s %12s %8s", "Result", "previous", "current", "ratio"));
+        for (Map.Entry<String, Double> entry : results.entrySet()) {
+            Double before = previousResults.get(entry.getKey());
+            double ratio = before != null && before > 0 ? entry.getValue() / before : Double.NaN;
+            boolean cost = entry.getKey().endsWith(".ms") || entry.getKey().endsWith(".mb");
+            boolean regressed = cost && ratio > maxRatio;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.println(String.format(Locale.ROOT, "%-36s %12s %12.3f %8s%s", entry.getKey(),
+                    before != null ? String.format(Locale.ROOT, "%.3f", before) : "-", entry.getValue(),
+                    Double.isNaN(ratio) ? "-" : String.format(Locale.ROOT, "%.2f", ratio), regressed ? "  REGRESSION" : ""));
+        }
+        return regressions;
+    }
+
+    @Nullable
+    private static String getSection(@NotNull String json, @NotNull String name) {
+        int start = json.indexOf("\"" + name + "\": {");
+        if (start < 0) {
+            return null;
+        }
+        int end = json.indexOf('}', start);
+        return end < 0 ? null : json.substring(start, end);
+    }
+}
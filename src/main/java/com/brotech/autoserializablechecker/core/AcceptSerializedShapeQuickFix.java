@@ -0,0 +1,37 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Accepts the current serialized shape of a class as its new baseline.
+ * Doesn't modify code, so it runs outside a write action.
+ */
+public class AcceptSerializedShapeQuickFix implements LocalQuickFix {
+
+    @NotNull
+    @Override
+    public String getFamilyName() {
+        return "Accept current serialized shape";
+    }
+
+    @Override
+    public boolean startInWriteAction() {
+        return false;
+    }
+
+    @Override
+    public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        PsiClass psiClass = PsiTreeUtil.getParentOfType(descriptor.getPsiElement(), PsiClass.class);
+        if (psiClass == null) {
+            return;
+        }
+        AutoserializableShapeBaseline.getInstance(project).accept(psiClass);
+        DaemonCodeAnalyzer.getInstance(project).restart(psiClass.getContainingFile());
+    }
+}
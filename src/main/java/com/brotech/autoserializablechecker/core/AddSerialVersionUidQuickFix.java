@@ -0,0 +1,47 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Declares a serialVersionUID with a given value: the class's current default, or the default
+ * it had before a change, so that already serialized data stays readable.
+ */
+public class AddSerialVersionUidQuickFix implements LocalQuickFix {
+
+    private final long value;
+    private final boolean previous;
+
+    public AddSerialVersionUidQuickFix(long value, boolean previous) {
+        this.value = value;
+        this.previous = previous;
+    }
+
+    @NotNull
+    @Override
+    public String getName() {
+        return (previous ? "Keep previous default serialVersionUID = " : "Add serialVersionUID = ") + value + "L";
+    }
+
+    @NotNull
+    @Override
+    public String getFamilyName() {
+        return "Add serialVersionUID";
+    }
+
+    @Override
+    public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        PsiClass psiClass = PsiTreeUtil.getParentOfType(descriptor.getPsiElement(), PsiClass.class);
+        if (psiClass == null || psiClass.getLBrace() == null
+                || AutoserializableShapeFingerprint.getExplicitSerialVersionUid(psiClass) != null) {
+            return;
+        }
+        PsiField field = JavaPsiFacade.getElementFactory(project).createFieldFromText(
+                "private static final long serialVersionUID = " + value + "L;", psiClass);
+        psiClass.addAfter(field, psiClass.getLBrace());
+    }
+}
@@ -0,0 +1,59 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Analyzes a whole directory, module or the project for AutoSerializable classes.
+ * The scope is taken from the selection: a directory, then a module, then the whole project.
+ * Results stream into the AutoSerializable tool window.
+ */
+public class AnalyzeAutoserializableScopeAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+
+        VirtualFile file = e.getData(CommonDataKeys.VIRTUAL_FILE);
+        if (file != null && file.isDirectory()) {
+            AutoserializableProjectScanner.scan(project, List.of(file), "directory " + file.getName());
+            return;
+        }
+
+        Module module = e.getData(LangDataKeys.MODULE_CONTEXT);
+        if (module != null) {
+            AutoserializableProjectScanner.scan(project,
+                    List.of(ModuleRootManager.getInstance(module).getSourceRoots()),
+                    "module " + module.getName());
+            return;
+        }
+
+        AutoserializableProjectScanner.scan(project,
+                AutoserializableProjectScanner.getProjectSourceRoots(project),
+                "project " + project.getName());
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @NotNull
+    @Override
+    public ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+}
@@ -0,0 +1,138 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vcs.CheckinProjectPanel;
+import com.intellij.openapi.vcs.changes.CommitContext;
+import com.intellij.openapi.vcs.checkin.CheckinHandler;
+import com.intellij.openapi.vcs.checkin.CheckinHandlerFactory;
+import com.intellij.openapi.vcs.ui.RefreshableOnComponent;
+import com.intellij.ui.components.JBCheckBox;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+
+/**
+ * Warns before a commit that changes the serialized shape of AutoSerializable classes (or of the
+ * classes they depend on) relative to the VCS base revision.
+ * Performance improvements:
+ * - Only files in the changelist are examined, so cost follows the changelist size, not the project
+ * - Runs under a time budget from the settings; when it runs out the commit proceeds with a
+ *   partial report instead of blocking the dialog
+ * - Skipped entirely while indexing, when the verdicts would need a full resolve
+ */
+public class AutoserializableCheckinHandlerFactory extends CheckinHandlerFactory {
+
+    @NotNull
+    @Override
+    public CheckinHandler createHandler(@NotNull CheckinProjectPanel panel, @NotNull CommitContext commitContext) {
+        return new AutoserializableCheckinHandler(panel);
+    }
+
+    private static final class AutoserializableCheckinHandler extends CheckinHandler {
+        private final CheckinProjectPanel panel;
+
+        AutoserializableCheckinHandler(@NotNull CheckinProjectPanel panel) {
+            this.panel = panel;
+        }
+
+        @Nullable
+        @Override
+        public RefreshableOnComponent getBeforeCheckinConfigurationPanel() {
+            JBCheckBox checkBox = new JBCheckBox("Check AutoSerializable classes");
+            return new RefreshableOnComponent() {
+                @NotNull
+                @Override
+                public JComponent getComponent() {
+                    return checkBox;
+                }
+
+                @Override
+                public void saveState() {
+                    AutoserializableSettingsState.getInstance().setCommitCheckEnabled(checkBox.isSelected());
+                }
+
+                @Override
+                public void restoreState() {
+                    checkBox.setSelected(AutoserializableSettingsState.getInstance().isCommitCheckEnabled());
+                }
+            };
+        }
+
+        @Override
+        public ReturnResult beforeCheckin() {
+            Project project = panel.getProject();
+            AutoserializableSettingsState settings = AutoserializableSettingsState.getInstance();
+            if (settings == null || !settings.isCommitCheckEnabled() || DumbService.isDumb(project)) {
+                return ReturnResult.COMMIT;
+            }
+
+            long budgetMs = settings.getCommitCheckBudgetMs();
+            AutoserializableCommitChecker.Report report;
+            try {
+                report = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                        () -> AutoserializableCommitChecker.check(project, panel.getSelectedChanges(), budgetMs,
+                                ProgressManager.getInstance().getProgressIndicator()),
+                        "Checking AutoSerializable Classes",
+                        true,
+                        project);
+            } catch (ProcessCanceledException e) {
+                return ReturnResult.COMMIT; // The user chose not to wait
+            }
+
+            if (!report.findings.isEmpty()) {
+                int answer = Messages.showOkCancelDialog(project, describe(report),
+                        "AutoSerializable Changes", "Commit Anyway", "Cancel", Messages.getWarningIcon());
+                return answer == Messages.OK ? ReturnResult.COMMIT : ReturnResult.CANCEL;
+            }
+            if (!report.isComplete()) {
+                NotificationGroupManager.getInstance()
+                        .getNotificationGroup("Autoserializable Warnings")
+                        .createNotification(
+                                "AutoSerializable commit check incomplete",
+                                describeIncomplete(report, budgetMs),
+                                NotificationType.INFORMATION)
+                        .notify(project);
+            }
+            return ReturnResult.COMMIT;
+        }
+
+        @NotNull
+        private static String describeIncomplete(@NotNull AutoserializableCommitChecker.Report report, long budgetMs) {
+            if (report.timedOut) {
+                return String.format("Checked %d of %d changed Java files within %d ms.",
+                        report.checkedFiles, report.totalFiles, budgetMs);
+            }
+            return String.format("Checked %d of %d changed Java files; the rest were skipped because indexing started.",
+                    report.checkedFiles, report.totalFiles);
+        }
+
+        @NotNull
+        private static String describe(@NotNull AutoserializableCommitChecker.Report report) {
+            StringBuilder message = new StringBuilder("This commit changes the serialized form of:\n\n");
+            for (AutoserializableCommitChecker.Finding finding : report.findings) {
+                message.append("• ").append(finding.className).append(" (").append(finding.file.getName()).append(')');
+                if (!finding.impactedTypes.isEmpty()) {
+                    message.append(" - used by ").append(String.join(", ", finding.impactedTypes));
+                } else if (!finding.serialVersionUidChanged) {
+                    message.append(" - serialVersionUID unchanged");
+                }
+                message.append('\n');
+            }
+            if (report.timedOut) {
+                message.append(String.format("\nOnly %d of %d changed Java files were checked within the time budget.\n",
+                        report.checkedFiles, report.totalFiles));
+            } else if (report.skippedFiles > 0) {
+                message.append(String.format("\n%d of %d changed Java files were skipped because indexing started.\n",
+                        report.skippedFiles, report.totalFiles));
+            }
+            return message.append("\nEnsure backward compatibility before committing.").toString();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.brotech.autoserializablechecker.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the header of a class file: its name, supertypes and whether it carries a marker
+ * annotation or implements a marker interface.
+ * Performance: the constant pool is walked once to record entry offsets; annotations are only
+ * parsed (skipping over fields and methods) when the pool's raw bytes contain a marker's simple
+ * name, which for almost every class file they don't. No bytecode is decoded.
+ */
+final class AutoserializableClassFileReader {
+
+    static final class ClassHeader {
+        final String name;
+        // Superclass (null for java.lang.Object and module-info) followed by the interfaces
+        final String[] supertypes;
+        final boolean direct;
+
+        ClassHeader(String name, String[] supertypes, boolean direct) {
+            this.name = name;
+            this.supertypes = supertypes;
+            this.direct = direct;
+        }
+    }
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final byte[] bytes;
+    private final AutoserializableMarkerMatcher markers;
+    private int[] offsets; // Constant pool index -> offset of the entry's tag byte
+    private int pos;
+
+    private AutoserializableClassFileReader(@NotNull byte[] bytes, @NotNull AutoserializableMarkerMatcher markers) {
+        this.bytes = bytes;
+        this.markers = markers;
+    }
+
+    /**
+     * Parses a class file. Returns {@code null} if the bytes are not a well-formed class file.
+     * Names use dots for both packages and nesting, like {@code PsiClass.getQualifiedName()}.
+     */
+    @Nullable
+    static ClassHeader read(@NotNull byte[] bytes, @NotNull AutoserializableMarkerMatcher markers) {
+        try {
+            return new AutoserializableClassFileReader(bytes, markers).read();
+        } catch (ArrayIndexOutOfBoundsException | IllegalStateException e) {
+            return null; // Truncated or corrupt
+        }
+    }
+
+    @Nullable
+    private ClassHeader read() {
+        if (readInt() != MAGIC) {
+            return null;
+        }
+        pos += 4; // minor_version, major_version
+        int poolStart = pos + 2;
+        readConstantPool();
+        int poolEnd = pos;
+
+        pos += 2; // access_flags
+        String name = getClassName(readUnsignedShort());
+        if (name == null) {
+            return null;
+        }
+        int superIndex = readUnsignedShort();
+        int interfaceCount = readUnsignedShort();
+        String[] supertypes = new String[1 + interfaceCount];
+        supertypes[0] = superIndex != 0 ? getClassName(superIndex) : null;
+        boolean direct = supertypes[0] != null && markers.matches(supertypes[0]);
+        for (int i = 0; i < interfaceCount; i++) {
+            supertypes[i + 1] = getClassName(readUnsignedShort());
+            direct |= supertypes[i + 1] != null && markers.matches(supertypes[i + 1]);
+        }
+
+        // Every marker annotation's descriptor is in the pool, so no simple name there - no annotation
+        if (!direct && markers.getTextMatcher().containsAny(bytes, poolStart, poolEnd)) {
+            direct = hasMarkerAnnotation();
+        }
+        return new ClassHeader(name, supertypes, direct);
+    }
+
+    private void readConstantPool() {
+        int count = readUnsignedShort();
+        offsets = new int[count];
+        for (int i = 1; i < count; i++) {
+            offsets[i] = pos;
+            int tag = bytes[pos++];
+            switch (tag) {
+                case 1: // Utf8
+                    pos += 2 + readUnsignedShort(pos);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    pos += 8;
+                    i++; // Takes two slots
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    pos += 4;
+                    break;
+                case 15: // MethodHandle
+                    pos += 3;
+                    break;
+                case 7: // Class
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    pos += 2;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    private boolean hasMarkerAnnotation() {
+        skipMembers(); // Fields
+        skipMembers(); // Methods
+        int attributeCount = readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = getUtf8(readUnsignedShort());
+            int length = readInt();
+            int end = pos + length;
+            // Marker annotations may have CLASS retention, so both kinds are checked
+            if ("RuntimeVisibleAnnotations".equals(attributeName) || "RuntimeInvisibleAnnotations".equals(attributeName)) {
+                int annotationCount = readUnsignedShort();
+                for (int j = 0; j < annotationCount; j++) {
+                    String descriptor = getUtf8(readUnsignedShort());
+                    if (descriptor != null && descriptor.length() > 2 && markers.matches(toQualifiedName(
+                            descriptor.substring(1, descriptor.length() - 1)))) {
+                        return true;
+                    }
+                    skipElementValuePairs();
+                }
+            }
+            pos = end;
+        }
+        return false;
+    }
+
+    private void skipMembers() {
+        int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            pos += 6; // access_flags, name_index, descriptor_index
+            skipAttributes();
+        }
+    }
+
+    private void skipAttributes() {
+        int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            pos += 2; // attribute_name_index
+            int length = readInt();
+            pos += length;
+        }
+    }
+
+    private void skipElementValuePairs() {
+        int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            pos += 2; // element_name_index
+            skipElementValue();
+        }
+    }
+
+    private void skipElementValue() {
+        int tag = bytes[pos++];
+        switch (tag) {
+            case 'e': // Enum constant
+                pos += 4;
+                break;
+            case '@': // Nested annotation
+                pos += 2;
+                skipElementValuePairs();
+                break;
+            case '[':
+                int count = readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue();
+                }
+                break;
+            default: // Constant or class
+                pos += 2;
+        }
+    }
+
+    @Nullable
+    private String getClassName(int classIndex) {
+        if (classIndex <= 0 || classIndex >= offsets.length || bytes[offsets[classIndex]] != 7) {
+            return null;
+        }
+        String internalName = getUtf8(readUnsignedShort(offsets[classIndex] + 1));
+        return internalName != null ? toQualifiedName(internalName) : null;
+    }
+
+    @Nullable
+    private String getUtf8(int index) {
+        if (index <= 0 || index >= offsets.length || bytes[offsets[index]] != 1) {
+            return null;
+        }
+        int offset = offsets[index];
+        // Class and annotation names are plain ASCII in practice; modified UTF-8 only differs
+        // from UTF-8 for NUL and supplementary characters
+        return new String(bytes, offset + 3, readUnsignedShort(offset + 1), StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    static String toQualifiedName(@NotNull String internalName) {
+        return internalName.replace('/', '.').replace('$', '.');
+    }
+
+    private int readUnsignedShort() {
+        int value = readUnsignedShort(pos);
+        pos += 2;
+        return value;
+    }
+
+    private int readUnsignedShort(int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private int readInt() {
+        int value = ((bytes[pos] & 0xFF) << 24) | ((bytes[pos + 1] & 0xFF) << 16)
+                | ((bytes[pos + 2] & 0xFF) << 8) | (bytes[pos + 3] & 0xFF);
+        pos += 4;
+        return value;
+    }
+}
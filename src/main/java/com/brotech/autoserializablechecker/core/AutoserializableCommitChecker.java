@@ -0,0 +1,234 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.concurrency.SensitiveProgressWrapper;
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vcs.VcsException;
+import com.intellij.openapi.vcs.changes.Change;
+import com.intellij.openapi.vcs.changes.ContentRevision;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the serialized shapes of classes touched by a changelist with their base revision.
+ * Performance improvements:
+ * - Work is proportional to the changelist, never to the project: only changed Java files are read
+ * - Files (including fetching base revisions from VCS) are processed concurrently via {@link JobLauncher}
+ * - A time budget cancels the remaining work and yields a partial report instead of blocking the commit
+ * - Shapes are compared as declared in the source text, so the base revision is parsed but never resolved
+ */
+final class AutoserializableCommitChecker {
+
+    static final class Finding {
+        final String className;
+        final VirtualFile file;
+        final boolean serialVersionUidChanged;
+        // For non-AutoSerializable base classes and field types: the AutoSerializable types affected
+        final List<String> impactedTypes;
+
+        Finding(String className, VirtualFile file, boolean serialVersionUidChanged, List<String> impactedTypes) {
+            this.className = className;
+            this.file = file;
+            this.serialVersionUidChanged = serialVersionUidChanged;
+            this.impactedTypes = impactedTypes;
+        }
+    }
+
+    static final class Report {
+        final List<Finding> findings;
+        final int checkedFiles;
+        final int totalFiles;
+        final boolean timedOut;
+        // Files left unchecked because indexing started during the check
+        final int skippedFiles;
+
+        Report(List<Finding> findings, int checkedFiles, int totalFiles, boolean timedOut, int skippedFiles) {
+            this.findings = findings;
+            this.checkedFiles = checkedFiles;
+            this.totalFiles = totalFiles;
+            this.timedOut = timedOut;
+            this.skippedFiles = skippedFiles;
+        }
+
+        boolean isComplete() {
+            return !timedOut && skippedFiles == 0;
+        }
+    }
+
+    private AutoserializableCommitChecker() {
+    }
+
+    /**
+     * Checks the given changes within {@code budgetMs}. Cancellation by the user still propagates;
+     * running out of budget does not - whatever was checked by then is reported.
+     */
+    @NotNull
+    static Report check(@NotNull Project project,
+                        @NotNull Collection<Change> changes,
+                        long budgetMs,
+                        @NotNull ProgressIndicator indicator) {
+        List<Change> javaChanges = new ArrayList<>();
+        for (Change change : changes) {
+            VirtualFile file = change.getVirtualFile();
+            if (change.getAfterRevision() != null && file != null && file.getName().endsWith(".java")) {
+                javaChanges.add(change);
+            }
+        }
+
+        ConcurrentLinkedQueue<Finding> findings = new ConcurrentLinkedQueue<>();
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        // Cancelling the wrapper at the deadline stops our jobs without cancelling the caller's indicator
+        ProgressIndicator budgetIndicator = new SensitiveProgressWrapper(indicator);
+        ScheduledFuture<?> deadline = AppExecutorUtil.getAppScheduledExecutorService()
+                .schedule(budgetIndicator::cancel, budgetMs, TimeUnit.MILLISECONDS);
+        boolean completed = false;
+        try {
+            completed = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(javaChanges, budgetIndicator, change -> {
+                try {
+                    checkChange(project, change, findings);
+                    checked.incrementAndGet();
+                } catch (IndexNotReadyException e) {
+                    skipped.incrementAndGet(); // Indexing started meanwhile - counted as unchecked
+                }
+                indicator.setFraction((double) (checked.get() + skipped.get()) / javaChanges.size());
+                return true;
+            });
+        } catch (ProcessCanceledException e) {
+            // Partial result, see below
+        } finally {
+            deadline.cancel(false);
+        }
+        indicator.checkCanceled(); // Rethrows if the user cancelled
+        // A cancelled budget may end the jobs without an exception; only a full pass is complete
+        boolean timedOut = !completed || budgetIndicator.isCanceled()
+                || checked.get() + skipped.get() < javaChanges.size();
+        return new Report(new ArrayList<>(findings), checked.get(), javaChanges.size(), timedOut, skipped.get());
+    }
+
+    private static void checkChange(@NotNull Project project,
+                                    @NotNull Change change,
+                                    @NotNull Collection<Finding> findings) {
+        VirtualFile file = Objects.requireNonNull(change.getVirtualFile());
+        Map<String, ClassState> current = ReadAction.compute(() -> collectRelevantClasses(project, file));
+        if (current.isEmpty()) {
+            return; // Nothing in this file affects a serialized form
+        }
+
+        ContentRevision before = change.getBeforeRevision();
+        String beforeText;
+        try {
+            beforeText = before != null ? before.getContent() : null;
+        } catch (VcsException e) {
+            beforeText = null;
+        }
+        if (beforeText == null) {
+            return; // New file - there is no previous shape to be compatible with
+        }
+
+        String text = beforeText;
+        ReadAction.run(() -> {
+            PsiFile beforeFile = PsiFileFactory.getInstance(project)
+                    .createFileFromText(file.getName(), JavaLanguage.INSTANCE, text);
+            if (!(beforeFile instanceof PsiJavaFile)) {
+                return;
+            }
+            Map<String, ClassState> previous = new HashMap<>();
+            for (PsiClass psiClass : ((PsiJavaFile) beforeFile).getClasses()) {
+                collectStates(psiClass, previous, null);
+            }
+            for (Map.Entry<String, ClassState> entry : current.entrySet()) {
+                ClassState old = previous.get(entry.getKey());
+                ClassState now = entry.getValue();
+                if (old != null && old.fingerprint != now.fingerprint) {
+                    findings.add(new Finding(now.name, file,
+                            !Objects.equals(old.serialVersionUid, now.serialVersionUid), now.impactedTypes));
+                }
+            }
+        });
+    }
+
+    /**
+     * Classes in the current file whose shape matters: AutoSerializable ones and those other
+     * AutoSerializable types depend on.
+     */
+    @NotNull
+    private static Map<String, ClassState> collectRelevantClasses(@NotNull Project project, @NotNull VirtualFile file) {
+        Map<String, ClassState> result = new HashMap<>();
+        if (!file.isValid()) {
+            return result;
+        }
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (!(psiFile instanceof PsiJavaFile)) {
+            return result;
+        }
+        Map<String, ClassState> all = new HashMap<>();
+        for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+            collectStates(psiClass, all, result);
+        }
+        return result;
+    }
+
+    /**
+     * Records the declared shape of a class and its inner classes into {@code states}. If
+     * {@code relevant} is given, classes that matter for serialization are added there as well.
+     */
+    private static void collectStates(@NotNull PsiClass psiClass,
+                                      @NotNull Map<String, ClassState> states,
+                                      @Nullable Map<String, ClassState> relevant) {
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName != null) {
+            List<String> impacted = List.of();
+            boolean matters = true;
+            if (relevant != null && !AutoserializableUtil.isAutoserializable(psiClass)) {
+                impacted = AutoserializableImpact.getImpactedTypes(psiClass);
+                matters = !impacted.isEmpty();
+            }
+            ClassState state = new ClassState(psiClass.getName(),
+                    AutoserializableShapeFingerprint.getDeclaredShapeFingerprint(psiClass),
+                    // As written on both sides: the base revision's copy can't resolve constants
+                    AutoserializableShapeFingerprint.getWrittenSerialVersionUid(psiClass),
+                    impacted);
+            states.put(qualifiedName, state);
+            if (relevant != null && matters) {
+                relevant.put(qualifiedName, state);
+            }
+        }
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            collectStates(innerClass, states, relevant);
+        }
+    }
+
+    private static final class ClassState {
+        private final String name;
+        private final long fingerprint;
+        private final String serialVersionUid;
+        private final List<String> impactedTypes;
+
+        ClassState(String name, long fingerprint, String serialVersionUid, List<String> impactedTypes) {
+            this.name = name;
+            this.fingerprint = fingerprint;
+            this.serialVersionUid = serialVersionUid;
+            this.impactedTypes = impactedTypes;
+        }
+    }
+}
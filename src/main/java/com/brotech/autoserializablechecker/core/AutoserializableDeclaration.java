@@ -0,0 +1,69 @@
+package com.brotech.autoserializablechecker.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A class that directly declares an AutoSerializable marker, as recorded by {@link AutoserializableIndex}.
+ * Supertypes are stored as written in the source (unresolved), so reading an entry never touches PSI.
+ */
+public final class AutoserializableDeclaration {
+
+    public enum MarkerKind {
+        ANNOTATION,
+        INTERFACE
+    }
+
+    private final String className;
+    private final MarkerKind markerKind;
+    private final List<String> supertypes;
+
+    public AutoserializableDeclaration(@NotNull String className,
+                                       @NotNull MarkerKind markerKind,
+                                       @NotNull List<String> supertypes) {
+        this.className = className;
+        this.markerKind = markerKind;
+        this.supertypes = List.copyOf(supertypes);
+    }
+
+    @NotNull
+    public String getClassName() {
+        return className;
+    }
+
+    @NotNull
+    public MarkerKind getMarkerKind() {
+        return markerKind;
+    }
+
+    @NotNull
+    public List<String> getSupertypes() {
+        return supertypes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AutoserializableDeclaration)) {
+            return false;
+        }
+        AutoserializableDeclaration that = (AutoserializableDeclaration) o;
+        return className.equals(that.className)
+                && markerKind == that.markerKind
+                && supertypes.equals(that.supertypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(className, markerKind, supertypes);
+    }
+
+    @Override
+    public String toString() {
+        return className + " (" + markerKind + ")";
+    }
+}
@@ -0,0 +1,83 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Diagnostics tab of the AutoSerializable tool window: shows a snapshot of
+ * {@link AutoserializableMetrics} and exports it as JSON.
+ * Snapshots are taken only on demand (tab shown, Refresh), never on a timer.
+ */
+public class AutoserializableDiagnosticsPanel extends SimpleToolWindowPanel {
+
+    private final Project project;
+    private final JBTextArea report = new JBTextArea();
+
+    public AutoserializableDiagnosticsPanel(@NotNull Project project) {
+        super(true, true);
+        this.project = project;
+
+        report.setEditable(false);
+        report.setFont(new Font(Font.MONOSPACED, Font.PLAIN, JBUI.Fonts.label().getSize()));
+        report.setBorder(JBUI.Borders.empty(6));
+
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(DumbAwareAction.create("Refresh", AllIcons.Actions.Refresh, e -> refresh()));
+        group.add(DumbAwareAction.create("Export as JSON…", AllIcons.ToolbarDecorator.Export, e -> exportJson()));
+        group.add(DumbAwareAction.create("Reset Metrics", AllIcons.Actions.GC, e -> {
+            AutoserializableMetrics.getInstance().reset();
+            refresh();
+        }));
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar("AutoserializableDiagnostics", group, true);
+        toolbar.setTargetComponent(this);
+        setToolbar(toolbar.getComponent());
+        setContent(ScrollPaneFactory.createScrollPane(report));
+        refresh();
+    }
+
+    /**
+     * Must be called on the EDT.
+     */
+    public void refresh() {
+        report.setText(AutoserializableMetrics.getInstance().toText());
+        report.setCaretPosition(0);
+    }
+
+    private void exportJson() {
+        FileSaverDescriptor descriptor = new FileSaverDescriptor(
+                "Export AutoSerializable Metrics", "Save metrics snapshot as JSON", "json");
+        VirtualFileWrapper target = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save("autoserializable-metrics.json");
+        if (target == null) {
+            return;
+        }
+        try {
+            Files.writeString(target.getFile().toPath(), AutoserializableMetrics.getInstance().toJson(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            NotificationGroupManager.getInstance()
+                    .getNotificationGroup("Autoserializable Warnings")
+                    .createNotification("❌ Export Failed", "Could not write metrics: " + e.getMessage(), NotificationType.ERROR)
+                    .notify(project);
+        }
+    }
+}
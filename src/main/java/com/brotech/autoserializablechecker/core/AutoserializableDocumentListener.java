@@ -0,0 +1,427 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.RangeMarker;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.Alarm;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports serialized-shape changes while typing, before the file is saved.
+ * Performance improvements:
+ * - Each edit is mapped to its innermost enclosing class through range markers kept from the
+ *   previous pass, so only that class (and same-file AutoSerializable classes whose shape
+ *   includes it) is checked again - the cost of an edit doesn't grow with the file
+ * - Finding the enclosing class on the event thread only compares a few cached offsets; PSI is
+ *   touched later, in a debounced non-blocking read action
+ * - The whole file is walked only when there are no ranges yet, or when an edit may have
+ *   changed which classes exist or what they extend (class headers, imports, between classes)
+ * - Ranges of closed documents are released with the documents
+ * - Saving a file whose edits were all checked costs nothing more: {@link AutoserializableFileListener}
+ *   only checks saves this listener couldn't vouch for
+ */
+public class AutoserializableDocumentListener implements DocumentListener {
+    private final Project project;
+    private final Disposable parentDisposable;
+    // Guarded by itself
+    private final Map<Document, PendingEdits> pending = new LinkedHashMap<>();
+    // Class ranges of the last pass per document
+    private final Map<Document, DocumentRanges> ranges = ContainerUtil.createConcurrentWeakMap();
+    private final Map<String, Long> notificationTimes = new ConcurrentHashMap<>();
+    // Edited file -> whether all of its edits were checked; saves of unchecked files are left to
+    // the file listener (dropped edits, edits still waiting for indexing to finish)
+    private final Map<VirtualFile, Boolean> editsChecked = new ConcurrentHashMap<>();
+    private final AtomicLong lastChangeTime = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Alarm alarm;
+
+    private static final int DEBOUNCE_DELAY = 1000; // 1 second debounce
+    // Bulk edits beyond this are left to the inspection and the file listener's check on save
+    private static final int MAX_PENDING_DOCUMENTS = 500;
+
+    public AutoserializableDocumentListener(@NotNull Project project, @NotNull Disposable parentDisposable) {
+        this.project = project;
+        this.parentDisposable = parentDisposable;
+        this.alarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, parentDisposable);
+        Disposer.register(parentDisposable, this::releaseRanges);
+    }
+
+    @Override
+    public void documentChanged(@NotNull DocumentEvent event) {
+        AutoserializableSettingsState settings = AutoserializableSettingsState.getInstance();
+        if (settings == null || !settings.isNotificationsEnabled() || project.isDisposed()) {
+            return;
+        }
+        Document document = event.getDocument();
+        VirtualFile file = FileDocumentManager.getInstance().getFile(document);
+        if (file == null || !file.getName().endsWith(".java") || !ProjectFileIndex.getInstance(project).isInContent(file)) {
+            return;
+        }
+
+        editsChecked.put(file, Boolean.FALSE);
+        DocumentRanges documentRanges = ranges.get(document);
+        ClassRange edited = documentRanges != null
+                ? documentRanges.findEnclosingBody(event.getOffset(), event.getOffset() + event.getNewLength())
+                : null;
+        synchronized (pending) {
+            PendingEdits edits = pending.get(document);
+            if (edits == null) {
+                if (pending.size() >= MAX_PENDING_DOCUMENTS) {
+                    return; // Full - drop instead of growing without bound
+                }
+                edits = new PendingEdits();
+                pending.put(document, edits);
+            }
+            if (edited != null) {
+                edits.classes.add(edited);
+            } else {
+                edits.wholeFile = true;
+            }
+        }
+        lastChangeTime.set(System.currentTimeMillis());
+        if (flushScheduled.compareAndSet(false, true)) {
+            alarm.addRequest(this::flush, DEBOUNCE_DELAY);
+        }
+    }
+
+    /**
+     * Called for a saved file; returns {@code true} if all of its edits were already checked here.
+     * Either way the file starts over, as its saved content is checked by one listener or the other.
+     */
+    boolean consumeCheckedSave(@NotNull VirtualFile file) {
+        return Boolean.TRUE.equals(editsChecked.remove(file));
+    }
+
+    /**
+     * Postponed until no edit arrived for {@link #DEBOUNCE_DELAY} ms, like the file listener.
+     */
+    private void flush() {
+        long quietFor = System.currentTimeMillis() - lastChangeTime.get();
+        if (quietFor < DEBOUNCE_DELAY) {
+            alarm.addRequest(this::flush, DEBOUNCE_DELAY - quietFor); // Still typing
+            return;
+        }
+        flushScheduled.set(false);
+
+        Map<Document, PendingEdits> edits;
+        synchronized (pending) {
+            edits = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        if (edits.isEmpty() || project.isDisposed()) {
+            return;
+        }
+
+        AutoserializableMetrics metrics = AutoserializableMetrics.getInstance();
+        ReadAction.nonBlocking(() -> {
+                    long start = System.nanoTime();
+                    CheckResult result = findShapeChanges(edits);
+                    metrics.recordSince(AutoserializableMetrics.Histogram.EDITOR_CHECK_TIME, start);
+                    return result;
+                })
+                .inSmartMode(project)
+                .withDocumentsCommitted(project)
+                .expireWith(parentDisposable)
+                .finishOnUiThread(ModalityState.NON_MODAL, this::applyResult)
+                .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    /**
+     * Read-only, may be restarted: new ranges and changes are only applied on the UI thread.
+     * Ranges created by an abandoned attempt aren't disposed; the document holds its markers
+     * weakly, so they are collected.
+     */
+    @NotNull
+    private CheckResult findShapeChanges(@NotNull Map<Document, PendingEdits> edits) {
+        AutoserializableShapeBaseline baseline = AutoserializableShapeBaseline.getInstance(project);
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+        CheckResult result = new CheckResult();
+
+        for (Map.Entry<Document, PendingEdits> entry : edits.entrySet()) {
+            ProgressManager.checkCanceled();
+            Document document = entry.getKey();
+            result.checked.add(document);
+            PsiFile psiFile = documentManager.getPsiFile(document);
+            if (!(psiFile instanceof PsiJavaFile) || psiFile.getVirtualFile() == null) {
+                continue;
+            }
+            PsiJavaFile javaFile = (PsiJavaFile) psiFile;
+            DocumentRanges documentRanges = ranges.get(document);
+            if (entry.getValue().wholeFile || documentRanges == null
+                    || !findClassChanges(javaFile, documentRanges, entry.getValue().classes, baseline, result)) {
+                result.rebuilt.put(document, findFileChanges(javaFile, document, baseline, result));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks the edited classes and the AutoSerializable classes of the file that depend on them.
+     * Returns {@code false} if the cached ranges no longer describe the file.
+     */
+    private boolean findClassChanges(@NotNull PsiJavaFile javaFile,
+                                     @NotNull DocumentRanges documentRanges,
+                                     @NotNull Set<ClassRange> edited,
+                                     @NotNull AutoserializableShapeBaseline baseline,
+                                     @NotNull CheckResult result) {
+        Set<String> toCheck = new LinkedHashSet<>();
+        for (ClassRange range : edited) {
+            PsiClass psiClass = range.find(javaFile);
+            if (psiClass == null || AutoserializableUtil.isAutoserializable(psiClass) != range.autoserializable) {
+                return false;
+            }
+            toCheck.addAll(range.affected);
+        }
+        List<ClassChange> changes = new ArrayList<>();
+        for (String qualifiedName : toCheck) {
+            ClassRange range = documentRanges.byName.get(qualifiedName);
+            PsiClass psiClass = range != null ? range.find(javaFile) : null;
+            if (psiClass == null || !AutoserializableUtil.isAutoserializable(psiClass)) {
+                return false;
+            }
+            AutoserializableMetrics.getInstance().increment(AutoserializableMetrics.Counter.EDITOR_CLASS_CHECKS);
+            if (baseline.hasShapeChanged(psiClass)) {
+                changes.add(new ClassChange(javaFile.getVirtualFile(), psiClass));
+            }
+        }
+        result.changes.addAll(changes);
+        return true;
+    }
+
+    /**
+     * Checks every AutoSerializable class of the file and records the ranges for later edits.
+     */
+    @NotNull
+    private DocumentRanges findFileChanges(@NotNull PsiJavaFile javaFile,
+                                           @NotNull Document document,
+                                           @NotNull AutoserializableShapeBaseline baseline,
+                                           @NotNull CheckResult result) {
+        AutoserializableMetrics.getInstance().increment(AutoserializableMetrics.Counter.EDITOR_FILE_PASSES);
+        if (!AutoserializableUtil.mightContainAutoserializable(javaFile)) {
+            return DocumentRanges.EMPTY;
+        }
+        Map<String, PsiClass> classes = new LinkedHashMap<>();
+        for (PsiClass psiClass : PsiTreeUtil.findChildrenOfType(javaFile, PsiClass.class)) {
+            String qualifiedName = psiClass.getQualifiedName();
+            if (qualifiedName != null) { // Not anonymous, local or a type parameter
+                classes.put(qualifiedName, psiClass);
+            }
+        }
+
+        // Class -> AutoSerializable classes of this file whose serialized shape includes it
+        Map<String, Set<String>> affected = new HashMap<>();
+        Set<String> autoserializable = new HashSet<>();
+        for (Map.Entry<String, PsiClass> entry : classes.entrySet()) {
+            ProgressManager.checkCanceled();
+            PsiClass psiClass = entry.getValue();
+            if (!AutoserializableUtil.isAutoserializable(psiClass)) {
+                continue;
+            }
+            autoserializable.add(entry.getKey());
+            Set<PsiClass> visited = new HashSet<>();
+            for (PsiClass type = psiClass; type != null && type.getContainingFile() == javaFile && visited.add(type); type = type.getSuperClass()) {
+                affected.computeIfAbsent(type.getQualifiedName(), name -> new LinkedHashSet<>()).add(entry.getKey());
+            }
+            if (baseline.hasShapeChanged(psiClass)) {
+                result.changes.add(new ClassChange(javaFile.getVirtualFile(), psiClass));
+            }
+        }
+
+        List<ClassRange> classRanges = new ArrayList<>(classes.size());
+        for (Map.Entry<String, PsiClass> entry : classes.entrySet()) {
+            PsiClass psiClass = entry.getValue();
+            PsiElement lBrace = psiClass.getLBrace();
+            PsiElement rBrace = psiClass.getRBrace();
+            RangeMarker body = null; // Incomplete code: any edit re-checks the file
+            if (lBrace != null && rBrace != null) {
+                body = document.createRangeMarker(lBrace.getTextRange().getEndOffset(), rBrace.getTextRange().getStartOffset());
+                // Text typed right after '{' or before '}' is still inside the body
+                body.setGreedyToLeft(true);
+                body.setGreedyToRight(true);
+            }
+            classRanges.add(new ClassRange(entry.getKey(), document.createRangeMarker(psiClass.getTextRange()), body,
+                    autoserializable.contains(entry.getKey()),
+                    affected.getOrDefault(entry.getKey(), Collections.emptySet())));
+        }
+        return new DocumentRanges(classRanges);
+    }
+
+    private void applyResult(@NotNull CheckResult result) {
+        FileDocumentManager fileDocumentManager = FileDocumentManager.getInstance();
+        for (Document document : result.checked) {
+            VirtualFile file = fileDocumentManager.getFile(document);
+            synchronized (pending) {
+                if (file != null && !pending.containsKey(document)) { // Not edited again meanwhile
+                    editsChecked.replace(file, Boolean.FALSE, Boolean.TRUE);
+                }
+            }
+        }
+        result.rebuilt.forEach((document, documentRanges) -> {
+            DocumentRanges previous = ranges.put(document, documentRanges);
+            if (previous != null) {
+                previous.dispose(); // Edits still pending on them fall back to a file pass
+            }
+        });
+
+        long now = System.currentTimeMillis();
+        long cooldown = getCooldownMs();
+        notificationTimes.values().removeIf(time -> now - time >= cooldown);
+        AutoserializableShapeBaseline baseline = AutoserializableShapeBaseline.getInstance(project);
+        AutoserializableNotificationDigest digest = AutoserializableNotificationDigest.getInstance(project);
+        for (ClassChange change : result.changes) {
+            // Throttle notifications per class while its fields are being typed
+            if (!notificationTimes.containsKey(change.qualifiedName)
+                    && baseline.markReported(change.qualifiedName, change.fingerprint)) {
+                notificationTimes.put(change.qualifiedName, now);
+                digest.add(change.file, change.className, change.qualifiedName);
+            }
+        }
+    }
+
+    private void releaseRanges() {
+        ranges.values().forEach(DocumentRanges::dispose);
+        ranges.clear();
+        editsChecked.clear();
+    }
+
+    private static long getCooldownMs() {
+        AutoserializableSettingsState settings = AutoserializableSettingsState.getInstance();
+        return (settings != null) ? settings.getCooldownMs() : 10000L;
+    }
+
+    private static final class PendingEdits {
+        private final Set<ClassRange> classes = new HashSet<>();
+        private boolean wholeFile;
+    }
+
+    private static final class DocumentRanges {
+        private static final DocumentRanges EMPTY = new DocumentRanges(Collections.emptyList());
+
+        private final List<ClassRange> classes;
+        private final Map<String, ClassRange> byName = new HashMap<>();
+
+        DocumentRanges(List<ClassRange> classes) {
+            this.classes = classes;
+            for (ClassRange range : classes) {
+                byName.put(range.qualifiedName, range);
+            }
+        }
+
+        /**
+         * Innermost class whose body contains the edited text, or {@code null} if the edit may
+         * touch a class header or lies outside every class.
+         */
+        @Nullable
+        ClassRange findEnclosingBody(int start, int end) {
+            ClassRange innermost = null;
+            for (ClassRange range : classes) {
+                if (!range.range.isValid() || range.range.getStartOffset() > start || end > range.range.getEndOffset()) {
+                    continue;
+                }
+                if (innermost == null || range.range.getStartOffset() > innermost.range.getStartOffset()) {
+                    innermost = range;
+                }
+            }
+            if (innermost == null || innermost.body == null || !innermost.body.isValid()
+                    || innermost.body.getStartOffset() > start || end > innermost.body.getEndOffset()) {
+                return null;
+            }
+            return innermost;
+        }
+
+        void dispose() {
+            for (ClassRange range : classes) {
+                range.range.dispose();
+                if (range.body != null) {
+                    range.body.dispose();
+                }
+            }
+        }
+    }
+
+    private static final class ClassRange {
+        private final String qualifiedName;
+        // The whole declaration, from doc comment and annotations to the closing brace
+        private final RangeMarker range;
+        // Between the braces; edits elsewhere may change the header
+        private final RangeMarker body;
+        private final boolean autoserializable;
+        private final Set<String> affected;
+
+        ClassRange(String qualifiedName, RangeMarker range, RangeMarker body, boolean autoserializable, Set<String> affected) {
+            this.qualifiedName = qualifiedName;
+            this.range = range;
+            this.body = body;
+            this.autoserializable = autoserializable;
+            this.affected = affected;
+        }
+
+        /**
+         * The class now at this range, found by a descent from the file to the range's start.
+         */
+        @Nullable
+        PsiClass find(@NotNull PsiJavaFile javaFile) {
+            if (!range.isValid()) {
+                return null;
+            }
+            PsiClass psiClass = PsiTreeUtil.getParentOfType(javaFile.findElementAt(range.getStartOffset()), PsiClass.class, false);
+            if (psiClass == null || !qualifiedName.equals(psiClass.getQualifiedName())
+                    || psiClass.getTextRange().getStartOffset() != range.getStartOffset()) {
+                return null;
+            }
+            return psiClass;
+        }
+    }
+
+    private static final class CheckResult {
+        private final List<ClassChange> changes = new ArrayList<>();
+        private final Map<Document, DocumentRanges> rebuilt = new HashMap<>();
+        private final List<Document> checked = new ArrayList<>();
+    }
+
+    private static final class ClassChange {
+        private final VirtualFile file;
+        private final String className;
+        private final String qualifiedName;
+        private final long fingerprint;
+
+        ClassChange(VirtualFile file, PsiClass psiClass) {
+            this.file = file;
+            this.className = psiClass.getName();
+            this.qualifiedName = psiClass.getQualifiedName();
+            this.fingerprint = AutoserializableShapeFingerprint.getFingerprint(psiClass);
+        }
+    }
+}
@@ -1,43 +1,92 @@
 package com.brotech.autoserializablechecker.core;
 
 
-import com.intellij.notification.Notification;
-import com.intellij.notification.NotificationGroupManager;
-import com.intellij.notification.NotificationType;
-import com.intellij.notification.Notifications;
-import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.newvfs.BulkFileListener;
 import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
 import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
 import com.intellij.psi.*;
 import com.intellij.util.Alarm;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Optimized file listener that monitors Java files for @AutoSerializable usage.
  * Performance improvements:
- * - Debouncing to avoid processing rapid consecutive changes
+ * - Changed files are coalesced into one bounded, lock-free pending set; a burst of changes
+ *   (typing, git checkout, code generation) schedules a single debounced flush, not a task per file
+ * - Each flush checks all pending files in one cancellable non-blocking read action, which
+ *   restarts instead of blocking write actions
  * - Text-based pre-filtering before expensive PSI operations
  * - Uses cached utility for AutoSerializable checks
- * - Respects user settings for enabling/disabling notifications
+ * - Notifies only when a class's serialized shape changed, not on comment or method body edits
+ * - Saves are skipped when {@link AutoserializableDocumentListener} already checked all of their
+ *   edits, class by class, while they were typed; this listener covers changes made outside the
+ *   editor and edits that listener dropped or couldn't check yet (e.g. while indexing)
+ * - Per-file cooldown state expires, so memory doesn't grow with the number of files ever saved
+ * - Changes are reported through {@link AutoserializableNotificationDigest}, one rate-limited
+ *   balloon per burst instead of one per file
+ * - Respects user settings for enabling/disabling notifications; attached and detached live by
+ *   {@link AutoserializableNotificationService}
+ * - Doesn't wait for indexing: meanwhile, classes are recognized from their source (see
+ *   {@link AutoserializableSyntacticDetector}) and changes of their declared fields and supertypes
+ *   are reported as preliminary; the files are checked again when indexing finishes
  */
 public class AutoserializableFileListener implements BulkFileListener {
     private final Project project;
-    private final ConcurrentHashMap<String, Long> notificationCache = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Long> lastChangeTime = new ConcurrentHashMap<>();
-    private final Alarm alarm = new Alarm();
-    private final Set<String> pendingFiles = new HashSet<>();
+    // Expires pending checks; owned by AutoserializableNotificationService
+    private final Disposable parentDisposable;
+    // File -> time of its last notification; entries older than the cooldown are pruned on flush
+    private final Map<VirtualFile, Long> notificationTimes = new ConcurrentHashMap<>();
+    private final Set<VirtualFile> pendingFiles = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong lastChangeTime = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    // Class -> declared shape when last checked; lets changes be spotted while indexing
+    private final Map<String, Long> declaredShapes = new ConcurrentHashMap<>();
+    // Classes reported while indexing whose resolved re-check is still to come
+    private final Set<String> preliminaryReported = ConcurrentHashMap.newKeySet();
+    private final Alarm alarm;
+    private final AutoserializableDocumentListener documentListener;
     
     private static final int DEBOUNCE_DELAY = 1000; // 1 second debounce
+    // Bulk changes beyond this are not worth a notification each; the inspection still flags them
+    private static final int MAX_PENDING_FILES = 500;
 
-    public AutoserializableFileListener(Project project) {
+    public AutoserializableFileListener(@NotNull Project project, @NotNull Disposable parentDisposable) {
+        this(project, parentDisposable, null);
+    }
+
+    /**
+     * With a {@code documentListener}, saves whose edits it already checked are skipped.
+     */
+    public AutoserializableFileListener(@NotNull Project project,
+                                        @NotNull Disposable parentDisposable,
+                                        @Nullable AutoserializableDocumentListener documentListener) {
         this.project = project;
+        this.parentDisposable = parentDisposable;
+        this.documentListener = documentListener;
+        this.alarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, parentDisposable);
     }
 
     @Override
@@ -47,107 +96,250 @@ public class AutoserializableFileListener implements BulkFileListener {
             return; // Skip if settings not initialized or notifications disabled
         }
         
+        boolean added = false;
         for (VFileEvent event : events) {
             if (event instanceof VFileContentChangeEvent) {
-                VFileContentChangeEvent changeEvent = (VFileContentChangeEvent) event;
+                VirtualFile file = ((VFileContentChangeEvent) event).getFile();
 
-                // Only process Java files
-                if (changeEvent.getFile().getName().endsWith(".java")) {
-                    scheduleCheck(changeEvent);
+                // Only process Java files, and of saves only those not checked while typing
+                if (file.getName().endsWith(".java")
+                        && !(event.isFromSave() && documentListener != null && documentListener.consumeCheckedSave(file))) {
+                    added |= enqueue(file);
                 }
             }
         }
+        if (added) {
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        lastChangeTime.set(System.currentTimeMillis());
+        if (flushScheduled.compareAndSet(false, true)) {
+            alarm.addRequest(this::flush, DEBOUNCE_DELAY);
+        }
+    }
+
+    private boolean enqueue(@NotNull VirtualFile file) {
+        if (pendingCount.get() >= MAX_PENDING_FILES) {
+            return false; // Full - drop instead of growing without bound
+        }
+        if (pendingFiles.add(file)) {
+            pendingCount.incrementAndGet();
+        }
+        return true; // Already pending files still extend the debounce window
     }
 
     /**
-     * Debounces file checks to avoid processing rapid consecutive changes.
-     * This significantly reduces overhead during active typing.
+     * Debounces file checks to avoid processing rapid consecutive changes: the flush is
+     * postponed until no change arrived for {@link #DEBOUNCE_DELAY} ms.
      */
-    private void scheduleCheck(VFileContentChangeEvent event) {
-        String filePath = event.getFile().getPath();
-        long currentTime = System.currentTimeMillis();
-        
-        lastChangeTime.put(filePath, currentTime);
-        
-        synchronized (pendingFiles) {
-            if (pendingFiles.contains(filePath)) {
-                return; // Already scheduled
-            }
-            pendingFiles.add(filePath);
+    private void flush() {
+        long quietFor = System.currentTimeMillis() - lastChangeTime.get();
+        if (quietFor < DEBOUNCE_DELAY) {
+            alarm.addRequest(this::flush, DEBOUNCE_DELAY - quietFor); // Still typing
+            return;
         }
-        
-        // Debounce: wait for typing to stop before checking
-        alarm.addRequest(() -> {
-            synchronized (pendingFiles) {
-                pendingFiles.remove(filePath);
-            }
+        flushScheduled.set(false);
+
+        List<VirtualFile> files = drainPending();
+        if (files.isEmpty() || project.isDisposed()) {
+            return;
+        }
+
+        AutoserializableMetrics metrics = AutoserializableMetrics.getInstance();
+        metrics.record(AutoserializableMetrics.Histogram.LISTENER_QUEUE_DEPTH, files.size());
+        long submitted = System.nanoTime();
+        AtomicBoolean started = new AtomicBoolean();
+
+        ReadAction.nonBlocking(() -> {
+                    long start = System.nanoTime();
+                    if (started.compareAndSet(false, true)) {
+                        metrics.record(AutoserializableMetrics.Histogram.LISTENER_READ_ACTION_WAIT, start - submitted);
+                    }
+                    FlushResult result = findShapeChanges(files);
+                    metrics.recordSince(AutoserializableMetrics.Histogram.LISTENER_READ_ACTION_TIME, start);
+                    return result;
+                })
+                .expireWith(parentDisposable)
+                .finishOnUiThread(ModalityState.NON_MODAL, this::notifyShapeChanges)
+                .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    @NotNull
+    private List<VirtualFile> drainPending() {
+        List<VirtualFile> files = new ArrayList<>();
+        for (Iterator<VirtualFile> iterator = pendingFiles.iterator(); iterator.hasNext(); ) {
+            files.add(iterator.next());
+            iterator.remove();
+            pendingCount.decrementAndGet();
+        }
+        return files;
+    }
+
+    /**
+     * Read-only pass over all flushed files. May be restarted by a write action, so nothing here
+     * records that a notification was shown - that happens on the UI thread afterwards.
+     */
+    @NotNull
+    private FlushResult findShapeChanges(@NotNull List<VirtualFile> files) {
+        long now = System.currentTimeMillis();
+        long cooldown = getCooldownMs();
+        AutoserializableShapeBaseline baseline = AutoserializableShapeBaseline.getInstance(project);
+        PsiManager psiManager = PsiManager.getInstance(project);
+        FlushResult result = new FlushResult();
+
+        for (VirtualFile file : files) {
+            ProgressManager.checkCanceled();
             
-            Long lastChange = lastChangeTime.get(filePath);
-            if (lastChange != null && (currentTime - lastChange) < DEBOUNCE_DELAY) {
-                // Still typing, skip this check
-                return;
+            // Throttle notifications per file
+            Long lastNotification = notificationTimes.get(file);
+            if (!file.isValid() || (lastNotification != null && now - lastNotification < cooldown)) {
+                continue;
             }
-            
-            checkForAutoserializable(event);
-        }, DEBOUNCE_DELAY);
+
+            // Fast pre-check (index, then in-place text search) before PSI is even loaded
+            if (!AutoserializableUtil.mightContainAutoserializable(project, file)) {
+                continue; // Skip expensive PSI analysis
+            }
+
+            PsiFile psiFile = psiManager.findFile(file);
+            if (!(psiFile instanceof PsiJavaFile)) {
+                continue;
+            }
+
+            PsiClass[] classes = ((PsiJavaFile) psiFile).getClasses();
+            if (!DumbService.isDumb(project)) {
+                try {
+                    findShapeChanges(file, classes, baseline, result);
+                    continue;
+                } catch (IndexNotReadyException e) {
+                    // Indexing started meanwhile
+                }
+            }
+            findPreliminaryShapeChanges(file, classes, result);
+        }
+        return result;
     }
 
-    private void checkForAutoserializable(VFileContentChangeEvent event) {
-        String filePath = event.getFile().getPath();
+    private void findShapeChanges(@NotNull VirtualFile file,
+                                  @NotNull PsiClass[] classes,
+                                  @NotNull AutoserializableShapeBaseline baseline,
+                                  @NotNull FlushResult result) {
+        // Now do the full check with caching; only real serialized-shape changes are reported
+        ShapeChange change = null;
+        for (PsiClass psiClass : classes) {
+            if (AutoserializableUtil.isAutoserializable(psiClass)) {
+                String qualifiedName = psiClass.getQualifiedName();
+                if (qualifiedName != null) {
+                    result.declaredShapes.put(qualifiedName, AutoserializableShapeFingerprint.getDeclaredShapeFingerprint(psiClass));
+                    result.resolvedClasses.add(qualifiedName);
+                }
+                if (change == null && baseline.hasShapeChanged(psiClass)) {
+                    // Only notify once per file save
+                    change = new ShapeChange(file, psiClass.getName(), qualifiedName,
+                            AutoserializableShapeFingerprint.getFingerprint(psiClass));
+                }
+            }
+        }
+        if (change != null) {
+            result.changes.add(change);
+        }
+    }
 
-        // Throttle notifications per file
-        Long lastNotification = notificationCache.get(filePath);
-        long currentTime = System.currentTimeMillis();
-        
-        AutoserializableSettingsState settings = AutoserializableSettingsState.getInstance();
-        long cooldown = (settings != null) ? settings.getCooldownMs() : 10000L;
-        
-        if (lastNotification != null && (currentTime - lastNotification) < cooldown) {
-            return;
+    /**
+     * While indexing: the file's classes that look AutoSerializable, compared with the declared
+     * shape seen last time. Classes not seen before can't be compared; the file is checked
+     * again, resolved, when indexing finishes.
+     */
+    private void findPreliminaryShapeChanges(@NotNull VirtualFile file,
+                                             @NotNull PsiClass[] classes,
+                                             @NotNull FlushResult result) {
+        ShapeChange change = null;
+        for (PsiClass psiClass : classes) {
+            String qualifiedName = psiClass.getQualifiedName();
+            if (qualifiedName == null || !AutoserializableSyntacticDetector.isLikelyAutoserializable(psiClass)) {
+                continue;
+            }
+            long declared = AutoserializableShapeFingerprint.getDeclaredShapeFingerprint(psiClass);
+            result.declaredShapes.put(qualifiedName, declared);
+            Long previous = declaredShapes.get(qualifiedName);
+            if (change == null && previous != null && previous != declared) {
+                change = new ShapeChange(file, psiClass.getName(), qualifiedName, declared);
+            }
         }
+        if (change != null) {
+            result.preliminaryChanges.add(change);
+        }
+        result.deferredFiles.add(file);
+    }
 
-        ApplicationManager.getApplication().runReadAction(() -> {
-            PsiFile psiFile = PsiManager.getInstance(project).findFile(event.getFile());
+    private void notifyShapeChanges(@NotNull FlushResult result) {
+        long now = System.currentTimeMillis();
+        long cooldown = getCooldownMs();
+        notificationTimes.values().removeIf(time -> now - time >= cooldown);
 
-            if (!(psiFile instanceof PsiJavaFile)) {
-                return;
+        AutoserializableShapeBaseline baseline = AutoserializableShapeBaseline.getInstance(project);
+        AutoserializableNotificationDigest digest = AutoserializableNotificationDigest.getInstance(project);
+        for (ShapeChange change : result.changes) {
+            if (change.qualifiedName != null && change.className != null
+                    && baseline.markReported(change.qualifiedName, change.fingerprint)
+                    && !preliminaryReported.remove(change.qualifiedName)) { // Already told while indexing
+                notificationTimes.put(change.file, now);
+                digest.add(change.file, change.className, change.qualifiedName);
             }
-            
-            PsiJavaFile javaFile = (PsiJavaFile) psiFile;
-            
-            // Fast pre-check: does the file even contain "Autoserializable" text?
-            if (!AutoserializableUtil.mightContainAutoserializable(javaFile)) {
-                return; // Skip expensive PSI analysis
+        }
+        // No cooldown for these: the resolved re-check after indexing must not be throttled
+        for (ShapeChange change : result.preliminaryChanges) {
+            if (change.className != null && preliminaryReported.add(change.qualifiedName)) {
+                digest.add(change.file, change.className, change.qualifiedName);
             }
+        }
+        // Re-checked after indexing without a resolved change: the preliminary report is settled
+        preliminaryReported.removeAll(result.resolvedClasses);
+        declaredShapes.putAll(result.declaredShapes);
 
-            // Now do the full check with caching
-            for (PsiClass psiClass : javaFile.getClasses()) {
-                if (AutoserializableUtil.isAutoserializable(psiClass)) {
-                    notificationCache.put(filePath, currentTime);
-                    showNotification(event.getFile().getName(), psiClass.getName());
-                    break; // Only notify once per file save
+        if (!result.deferredFiles.isEmpty()) {
+            DumbService.getInstance(project).runWhenSmart(() -> {
+                if (alarm.isDisposed()) {
+                    return; // Listener detached meanwhile
                 }
-            }
-        });
+                boolean added = false;
+                for (VirtualFile file : result.deferredFiles) {
+                    added |= enqueue(file);
+                }
+                if (added) {
+                    scheduleFlush();
+                }
+            });
+        }
+    }
+
+    private static long getCooldownMs() {
+        AutoserializableSettingsState settings = AutoserializableSettingsState.getInstance();
+        return (settings != null) ? settings.getCooldownMs() : 10000L;
     }
 
-    private void showNotification(String fileName, String className) {
-        Notification notification = NotificationGroupManager.getInstance()
-                .getNotificationGroup("Autoserializable Warnings")
-                .createNotification(
-                        "⚠️ Serialization Warning",
-                        String.format(
-                                "You modified <b>%s</b> (class: %s) which uses @AutoSerializable.<br/>" +
-                                        "Please ensure:<br/>" +
-                                        "• Backward compatibility is maintained<br/>" +
-                                        "• SerialVersionUID is updated if needed<br/>" +
-                                        "• Changes are documented",
-                                fileName,
-                                className
-                        ),
-                        NotificationType.WARNING
-                );
-
-        Notifications.Bus.notify(notification, project);
+    private static final class FlushResult {
+        private final List<ShapeChange> changes = new ArrayList<>();
+        private final List<ShapeChange> preliminaryChanges = new ArrayList<>();
+        // Checked while indexing, to be checked again when it finishes
+        private final List<VirtualFile> deferredFiles = new ArrayList<>();
+        private final Map<String, Long> declaredShapes = new HashMap<>();
+        private final Set<String> resolvedClasses = new HashSet<>();
+    }
+
+    private static final class ShapeChange {
+        private final VirtualFile file;
+        private final String className;
+        private final String qualifiedName;
+        private final long fingerprint;
+
+        ShapeChange(VirtualFile file, String className, String qualifiedName, long fingerprint) {
+            this.file = file;
+            this.className = className;
+            this.qualifiedName = qualifiedName;
+            this.fingerprint = fingerprint;
+        }
     }
 }
@@ -0,0 +1,512 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Project-wide memoized inheritance graph for AutoSerializable verdicts.
+ * Performance improvements:
+ * - A verdict computed for a supertype is shared by all of its subtypes
+ * - Follows both extends and implements edges; real cycles are detected instead of capping depth
+ * - Reverse edges allow incremental invalidation: changing one type only invalidates that type
+ *   and its subtypes, and only when the change can affect a verdict (header, imports - not bodies)
+ * - Each type exposes its own {@link ModificationTracker}, so per-class cached values only expire
+ *   when something in their own hierarchy changes
+ * - Verdicts are persisted on project close and adopted again after a restart when the declaring
+ *   files are unchanged (see {@link AutoserializableVerdictStore}), so the first inspection pass
+ *   skips resolving hierarchies that were already computed
+ * - Library classes are decided from their jars' bytecode (see {@link AutoserializableLibraryClasses})
+ *   instead of walking decompiled PSI
+ */
+public class AutoserializableHierarchy implements Disposable {
+
+    // Qualified name -> verdict; absent means not computed or invalidated
+    private final Map<String, Boolean> verdicts = new ConcurrentHashMap<>();
+    // Supertype -> direct subtypes whose verdicts were derived from it
+    private final Map<String, Set<String>> subtypes = new ConcurrentHashMap<>();
+    // Source file -> types declared in it, to map PSI changes back to graph nodes
+    private final Map<VirtualFile, Set<String>> typesByFile = new ConcurrentHashMap<>();
+    // Types whose supertypes did not all resolve; a newly declared class may fix them
+    private final Set<String> unresolvedTypes = ConcurrentHashMap.newKeySet();
+    private final Map<String, TypeTracker> trackers = new ConcurrentHashMap<>();
+    // Bumped when everything is invalidated (roots changed, files moved or renamed)
+    private final AtomicLong epoch = new AtomicLong();
+    // What is needed to persist a verdict; only types whose whole hierarchy resolved to named types
+    private final Map<String, Origin> origins = new ConcurrentHashMap<>();
+    private final AutoserializableVerdictStore store;
+    private final Project project;
+
+    public AutoserializableHierarchy(@NotNull Project project) {
+        this.project = project;
+        store = new AutoserializableVerdictStore(project);
+        PsiManager.getInstance(project).addPsiTreeChangeListener(new HierarchyChangeListener(), this);
+        project.getMessageBus().connect(this).subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull ModuleRootEvent event) {
+                invalidateAll();
+            }
+        });
+    }
+
+    public static AutoserializableHierarchy getInstance(@NotNull Project project) {
+        return project.getService(AutoserializableHierarchy.class);
+    }
+
+    /**
+     * Loads verdicts persisted by the previous session. Call from a background thread.
+     */
+    public void preload() {
+        store.preload();
+    }
+
+    /**
+     * Returns the verdict for a class and adds what it depends on to {@code dependencies},
+     * for use as cached value dependencies.
+     */
+    public boolean isAutoserializable(@NotNull PsiClass psiClass, @NotNull Set<Object> dependencies) {
+        String qualifiedName = getMemoKey(psiClass);
+        if (qualifiedName != null) {
+            dependencies.add(getTracker(qualifiedName));
+            return getVerdict(psiClass, qualifiedName, new HashSet<>());
+        }
+
+        // Local, anonymous or non-physical classes aren't memoized - depend on the file and direct supertypes
+        PsiFile file = psiClass.getContainingFile();
+        dependencies.add(file != null ? file : PsiModificationTracker.MODIFICATION_COUNT);
+        if (AutoserializableUtil.hasDirectMarker(psiClass)) {
+            return true;
+        }
+        boolean result = false;
+        for (PsiClass superType : getDirectSupertypes(psiClass, dependencies)) {
+            String superName = getMemoKey(superType);
+            if (superName != null) {
+                dependencies.add(getTracker(superName));
+                result = getVerdict(superType, superName, new HashSet<>());
+            } else {
+                result = AutoserializableUtil.hasDirectMarker(superType);
+            }
+            if (result) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private boolean getVerdict(@NotNull PsiClass psiClass, @NotNull String qualifiedName, @NotNull Set<String> visiting) {
+        Boolean cached = verdicts.get(qualifiedName);
+        if (cached != null) {
+            return cached;
+        }
+        Boolean stored = adoptStoredVerdict(qualifiedName, new HashSet<>());
+        if (stored != null) {
+            return stored;
+        }
+        if (!visiting.add(qualifiedName)) {
+            return false; // Inheritance cycle - a type can't inherit a marker from itself
+        }
+
+        try {
+            if (psiClass instanceof PsiCompiledElement) {
+                Boolean library = getLibraryVerdict(psiClass, qualifiedName, visiting);
+                if (library != null) {
+                    return library;
+                }
+            }
+            recordFile(psiClass, qualifiedName);
+            boolean direct = AutoserializableUtil.hasDirectMarker(psiClass);
+            boolean result = direct;
+            boolean persistable = true;
+            List<String> consulted = new ArrayList<>();
+            if (!result) {
+                Set<Object> unresolved = new HashSet<>();
+                for (PsiClass superType : getDirectSupertypes(psiClass, unresolved)) {
+                    String superName = getMemoKey(superType);
+                    if (superName == null) {
+                        persistable = false;
+                        if (AutoserializableUtil.hasDirectMarker(superType)) {
+                            result = true;
+                            break;
+                        }
+                        continue;
+                    }
+                    subtypes.computeIfAbsent(superName, key -> ConcurrentHashMap.newKeySet()).add(qualifiedName);
+                    consulted.add(superName);
+                    if (getVerdict(superType, superName, visiting)) {
+                        result = true;
+                        break; // Only supertypes that were consulted need an edge
+                    }
+                }
+                if (!unresolved.isEmpty()) {
+                    unresolvedTypes.add(qualifiedName);
+                    persistable = false; // The missing supertype may exist next time
+                }
+            }
+            VirtualFile file = psiClass.getContainingFile().getVirtualFile();
+            // Library classes aren't persisted: a jar upgraded while the IDE was closed can keep its
+            // entries' stamps, and another version may still be on disk. Without their entries,
+            // stored verdicts that consulted a library supertype are recomputed too.
+            if (persistable && file != null && !(psiClass instanceof PsiCompiledElement)) {
+                origins.put(qualifiedName, new Origin(file, direct, consulted.toArray(String[]::new)));
+            }
+            verdicts.put(qualifiedName, result);
+            return result;
+        } finally {
+            visiting.remove(qualifiedName);
+        }
+    }
+
+    /**
+     * Verdict of a library class from its jar's bytecode summary; only supertypes outside the
+     * jar are looked up as PSI. Returns {@code null} if the jar hasn't been summarized yet or
+     * the summary doesn't know the class, so the PSI walk decides.
+     */
+    @Nullable
+    private Boolean getLibraryVerdict(@NotNull PsiClass psiClass, @NotNull String qualifiedName, @NotNull Set<String> visiting) {
+        AutoserializableLibraryClasses.JarSummary jar = AutoserializableLibraryClasses.getInstance().findSummary(psiClass);
+        if (jar == null || !jar.contains(qualifiedName)) {
+            return null;
+        }
+        AutoserializableMetrics.getInstance().increment(AutoserializableMetrics.Counter.DETECTION_BYTECODE_VERDICTS);
+        boolean result = jar.isAutoserializable(qualifiedName);
+        if (!result) {
+            JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+            for (String superName : jar.getExternalSupertypes(qualifiedName)) {
+                PsiClass superType = facade.findClass(superName, psiClass.getResolveScope());
+                if (superType == null) {
+                    continue;
+                }
+                subtypes.computeIfAbsent(superName, key -> ConcurrentHashMap.newKeySet()).add(qualifiedName);
+                if (getVerdict(superType, superName, visiting)) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        verdicts.put(qualifiedName, result);
+        return result;
+    }
+
+    /**
+     * Adopts a verdict persisted by the previous session if its file and the files of all
+     * consulted supertypes are unchanged. Nothing is resolved - the check is by name and VFS stamp.
+     * Returns {@code null} if the verdict can't be vouched for and has to be computed.
+     */
+    @Nullable
+    private Boolean adoptStoredVerdict(@NotNull String qualifiedName, @NotNull Set<String> visiting) {
+        Boolean live = verdicts.get(qualifiedName);
+        if (live != null) {
+            return live;
+        }
+        AutoserializableVerdictStore.StoredVerdict stored = store.get(qualifiedName);
+        if (stored == null || !visiting.add(qualifiedName)) {
+            return null;
+        }
+
+        try {
+            VirtualFile file = stored.findUnchangedFile();
+            if (file == null) {
+                store.remove(qualifiedName);
+                return null;
+            }
+            boolean result = stored.direct;
+            if (!result) {
+                for (String superName : stored.supertypes) {
+                    Boolean superVerdict = adoptStoredVerdict(superName, visiting);
+                    if (superVerdict == null) {
+                        return null;
+                    }
+                    if (superVerdict) {
+                        result = true;
+                        break;
+                    }
+                }
+            }
+            store.remove(qualifiedName);
+            if (result != stored.verdict) {
+                return null;
+            }
+
+            // Same bookkeeping as a computed verdict, so later edits invalidate it normally
+            for (String superName : stored.supertypes) {
+                subtypes.computeIfAbsent(superName, key -> ConcurrentHashMap.newKeySet()).add(qualifiedName);
+            }
+            typesByFile.computeIfAbsent(file, key -> ConcurrentHashMap.newKeySet()).add(qualifiedName);
+            origins.put(qualifiedName, new Origin(file, stored.direct, stored.supertypes));
+            verdicts.put(qualifiedName, result);
+            return result;
+        } finally {
+            visiting.remove(qualifiedName);
+        }
+    }
+
+    /**
+     * Resolved superclass (unless java.lang.Object) and implemented or extended interfaces.
+     * Adds the global PSI counter to {@code dependencies} if a declared supertype did not resolve,
+     * since the missing class may appear in any file later.
+     */
+    @NotNull
+    private static List<PsiClass> getDirectSupertypes(@NotNull PsiClass psiClass, @NotNull Set<Object> dependencies) {
+        List<PsiClass> result = new ArrayList<>();
+        boolean unresolved = false;
+        if (psiClass instanceof PsiAnonymousClass) {
+            unresolved = !addResolved(((PsiAnonymousClass) psiClass).getBaseClassType(), result);
+        }
+        for (PsiClassType type : psiClass.getExtendsListTypes()) {
+            unresolved |= !addResolved(type, result);
+        }
+        for (PsiClassType type : psiClass.getImplementsListTypes()) {
+            unresolved |= !addResolved(type, result);
+        }
+        if (unresolved) {
+            dependencies.add(PsiModificationTracker.MODIFICATION_COUNT);
+        }
+        return result;
+    }
+
+    private static boolean addResolved(@NotNull PsiClassType type, @NotNull List<PsiClass> target) {
+        PsiClass resolved = type.resolve();
+        if (resolved == null) {
+            return false;
+        }
+        if (!CommonClassNames.JAVA_LANG_OBJECT.equals(resolved.getQualifiedName())) {
+            target.add(resolved);
+        }
+        return true;
+    }
+
+    @Nullable
+    private static String getMemoKey(@NotNull PsiClass psiClass) {
+        if (PsiUtil.isLocalOrAnonymousClass(psiClass)) {
+            return null; // No stable identity
+        }
+        PsiFile file = psiClass.getContainingFile();
+        if (file == null || !file.isPhysical()) {
+            return null; // In-memory copies (completion, previews) must not pollute the shared graph
+        }
+        return psiClass.getQualifiedName();
+    }
+
+    private void recordFile(@NotNull PsiClass psiClass, @NotNull String qualifiedName) {
+        if (psiClass instanceof PsiCompiledElement) {
+            return; // Library classes only change with roots
+        }
+        VirtualFile file = psiClass.getContainingFile().getVirtualFile();
+        if (file != null) {
+            typesByFile.computeIfAbsent(file, key -> ConcurrentHashMap.newKeySet()).add(qualifiedName);
+        }
+    }
+
+    @NotNull
+    ModificationTracker getTracker(@NotNull String qualifiedName) {
+        return trackers.computeIfAbsent(qualifiedName, key -> new TypeTracker());
+    }
+
+    /**
+     * Invalidates every type declared in a file, and transitively all of their subtypes.
+     */
+    void invalidateFile(@NotNull VirtualFile file) {
+        Set<String> types = typesByFile.remove(file);
+        if (types != null) {
+            invalidateTypes(types);
+        }
+    }
+
+    private void invalidateTypes(@NotNull Collection<String> types) {
+        Deque<String> queue = new ArrayDeque<>(types);
+        Set<String> seen = new HashSet<>(types);
+        while (!queue.isEmpty()) {
+            String type = queue.poll();
+            verdicts.remove(type);
+            unresolvedTypes.remove(type);
+            origins.remove(type);
+            store.remove(type); // The file may now differ from disk, so its stamp proves nothing
+            TypeTracker tracker = trackers.get(type);
+            if (tracker != null) {
+                tracker.count.incrementAndGet();
+            }
+            Set<String> dependents = subtypes.remove(type);
+            if (dependents != null) {
+                for (String dependent : dependents) {
+                    if (seen.add(dependent)) {
+                        queue.add(dependent);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Last known verdict for a class name, from this session or a persisted one, without
+     * validating it against the declaring file. For preliminary verdicts while indexing (see
+     * {@link AutoserializableSyntacticDetector}); {@code null} if the class was never seen.
+     */
+    @Nullable
+    Boolean getStoredVerdict(@NotNull String qualifiedName) {
+        Boolean live = verdicts.get(qualifiedName);
+        if (live != null) {
+            return live;
+        }
+        AutoserializableVerdictStore.StoredVerdict stored = store.get(qualifiedName);
+        return stored != null ? stored.verdict : null;
+    }
+
+    void invalidateAll() {
+        verdicts.clear();
+        subtypes.clear();
+        typesByFile.clear();
+        unresolvedTypes.clear();
+        origins.clear();
+        epoch.incrementAndGet();
+        // Persisted verdicts stay usable: they are validated against file stamps when adopted
+    }
+
+    /**
+     * Drops every verdict, including persisted ones, after the marker set changed.
+     */
+    void markersChanged() {
+        store.clear();
+        invalidateAll();
+    }
+
+    @Override
+    public void dispose() {
+        saveVerdicts();
+        invalidateAll();
+        trackers.clear();
+    }
+
+    private void saveVerdicts() {
+        FileDocumentManager documentManager = FileDocumentManager.getInstance();
+        Map<String, AutoserializableVerdictStore.StoredVerdict> snapshot = new HashMap<>();
+        origins.forEach((qualifiedName, origin) -> {
+            Boolean verdict = verdicts.get(qualifiedName);
+            // Unsaved files: the disk stamp doesn't describe the content the verdict came from
+            if (verdict == null || documentManager.isFileModified(origin.file)) {
+                return;
+            }
+            AutoserializableVerdictStore.StoredVerdict stored =
+                    AutoserializableVerdictStore.create(origin.file, origin.direct, verdict, origin.supertypes);
+            if (stored != null) {
+                snapshot.put(qualifiedName, stored);
+            }
+        });
+        store.save(snapshot);
+    }
+
+    private static final class Origin {
+        private final VirtualFile file;
+        private final boolean direct;
+        private final String[] supertypes;
+
+        Origin(VirtualFile file, boolean direct, String[] supertypes) {
+            this.file = file;
+            this.direct = direct;
+            this.supertypes = supertypes;
+        }
+    }
+
+    private final class TypeTracker implements ModificationTracker {
+        private final AtomicLong count = new AtomicLong();
+
+        @Override
+        public long getModificationCount() {
+            return count.get() + epoch.get();
+        }
+    }
+
+    /**
+     * Maps PSI changes to graph invalidation. Edits inside method bodies, field initializers,
+     * comments and whitespace can't change a verdict and are ignored.
+     */
+    private final class HierarchyChangeListener extends PsiTreeChangeAdapter {
+        @Override
+        public void childAdded(@NotNull PsiTreeChangeEvent event) {
+            handle(event, event.getChild());
+        }
+
+        @Override
+        public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+            handle(event, event.getChild());
+        }
+
+        @Override
+        public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+            handle(event, event.getNewChild());
+        }
+
+        @Override
+        public void childMoved(@NotNull PsiTreeChangeEvent event) {
+            handle(event, event.getChild());
+        }
+
+        @Override
+        public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+            handle(event, null);
+        }
+
+        @Override
+        public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+            // File/directory renames, root changes - any reference may now resolve differently
+            invalidateAll();
+        }
+
+        private void handle(@NotNull PsiTreeChangeEvent event, @Nullable PsiElement child) {
+            PsiElement parent = event.getParent();
+            if (parent instanceof PsiDirectory || parent == null) {
+                invalidateAll(); // Files added, removed or moved
+                return;
+            }
+
+            PsiFile file = event.getFile();
+            if (!(file instanceof PsiJavaFile) || file.getVirtualFile() == null) {
+                return;
+            }
+            if (child instanceof PsiWhiteSpace || child instanceof PsiComment || !isHierarchyRelevant(parent)) {
+                return;
+            }
+            if ((child == null || child instanceof PsiClass || parent instanceof PsiJavaFile) && !unresolvedTypes.isEmpty()) {
+                // A new class may be the missing supertype of a previously unresolved one
+                invalidateTypes(new ArrayList<>(unresolvedTypes));
+            }
+            invalidateFile(file.getVirtualFile());
+        }
+
+        private boolean isHierarchyRelevant(@NotNull PsiElement parent) {
+            for (PsiElement element = parent; element != null && !(element instanceof PsiFile); element = element.getParent()) {
+                if (element instanceof PsiClass) {
+                    return true;
+                }
+                if (element instanceof PsiMethod
+                        || element instanceof PsiField
+                        || element instanceof PsiClassInitializer
+                        || element instanceof PsiDocComment) {
+                    return false;
+                }
+            }
+            return true; // File-level: imports, package statement
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the AutoSerializable types whose serialized form depends on a given type: subclasses,
+ * implementors and classes holding it in a serialized field, transitively.
+ * Performance: walks {@link AutoserializableImpactIndex} instead of searching inheritors or
+ * references; only index candidates are resolved, and the result is cached per class until the
+ * impact index or the hierarchy of a type it visited changes - not on every edit in the project.
+ */
+public final class AutoserializableImpact {
+
+    // Upper bound on types visited per query - enough to name the impact, not to enumerate it all
+    private static final int MAX_VISITED = 500;
+
+    private AutoserializableImpact() {
+    }
+
+    /**
+     * Qualified names of AutoSerializable types affected by changes to {@code psiClass}, in
+     * breadth-first order (closest dependents first). Empty while indexing.
+     */
+    @NotNull
+    public static List<String> getImpactedTypes(@NotNull PsiClass psiClass) {
+        return CachedValuesManager.getCachedValue(psiClass, () -> {
+            Set<Object> dependencies = new LinkedHashSet<>();
+            List<String> impacted = computeImpactedTypes(psiClass, dependencies);
+            return CachedValueProvider.Result.create(impacted, dependencies.toArray());
+        });
+    }
+
+    /**
+     * Collects what the result depends on into {@code dependencies}: the impact index (which
+     * changes only when declared supertypes or field types change, not on every edit), indexing
+     * state and the hierarchy trackers of the class and of every dependent visited.
+     */
+    @NotNull
+    private static List<String> computeImpactedTypes(@NotNull PsiClass psiClass, @NotNull Set<Object> dependencies) {
+        Project project = psiClass.getProject();
+        dependencies.add(DumbService.getInstance(project).getModificationTracker());
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName == null) {
+            dependencies.add(psiClass.getContainingFile() != null ? psiClass.getContainingFile() : PsiModificationTracker.MODIFICATION_COUNT);
+            return Collections.emptyList();
+        }
+        AutoserializableHierarchy hierarchy = AutoserializableHierarchy.getInstance(project);
+        dependencies.add(hierarchy.getTracker(qualifiedName)); // Renames, new supertypes; also bumped on root changes
+        if (DumbService.isDumb(project)) {
+            return Collections.emptyList();
+        }
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        dependencies.add((ModificationTracker) () -> index.getIndexModificationStamp(AutoserializableImpactIndex.NAME, project));
+
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+        Set<String> impacted = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        visited.add(qualifiedName);
+        Deque<PsiClass> queue = new ArrayDeque<>();
+        queue.add(psiClass);
+
+        while (!queue.isEmpty() && visited.size() < MAX_VISITED) {
+            PsiClass type = queue.poll();
+            String name = type.getName();
+            if (name == null) {
+                continue;
+            }
+            Set<String> candidates = new LinkedHashSet<>();
+            index.processValues(AutoserializableImpactIndex.NAME, name, null, (file, dependents) -> {
+                candidates.addAll(dependents);
+                return true;
+            }, scope);
+
+            for (String candidate : candidates) {
+                if (visited.contains(candidate)) {
+                    continue;
+                }
+                for (PsiClass dependent : facade.findClasses(candidate, scope)) {
+                    // The index matched a short name - confirm the dependency really is on this type
+                    if (!dependsOn(dependent, type)) {
+                        continue;
+                    }
+                    visited.add(candidate);
+                    dependencies.add(hierarchy.getTracker(candidate)); // Its verdict
+                    if (AutoserializableUtil.isAutoserializable(dependent)) {
+                        impacted.add(candidate);
+                    }
+                    queue.add(dependent); // Its own dependents serialize this type too
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(impacted);
+    }
+
+    private static boolean dependsOn(@NotNull PsiClass dependent, @NotNull PsiClass type) {
+        if (dependent.isInheritor(type, false)) {
+            return true;
+        }
+        PsiManager manager = dependent.getManager();
+        for (PsiField field : dependent.getFields()) {
+            if (AutoserializableShapeFingerprint.isSerializedField(field) && mentions(field.getType(), type, manager)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean mentions(@NotNull PsiType fieldType, @NotNull PsiClass type, @NotNull PsiManager manager) {
+        PsiType component = fieldType.getDeepComponentType();
+        if (component instanceof PsiWildcardType) {
+            PsiType bound = ((PsiWildcardType) component).getBound();
+            return bound != null && mentions(bound, type, manager);
+        }
+        if (!(component instanceof PsiClassType)) {
+            return false;
+        }
+        PsiClassType classType = (PsiClassType) component;
+        // Cheap name check before resolving
+        if (type.getName().equals(classType.getClassName()) && manager.areElementsEquivalent(classType.resolve(), type)) {
+            return true;
+        }
+        for (PsiType parameter : classType.getParameters()) {
+            if (mentions(parameter, type, manager)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
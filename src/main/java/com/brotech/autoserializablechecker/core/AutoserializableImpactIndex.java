@@ -0,0 +1,166 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.psi.*;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Persistent reverse index: for each referenced type's short name, the classes in a file that
+ * depend on it for their serialized form - by extending/implementing it or by holding it in a
+ * non-static, non-transient field (including type arguments and array components).
+ * Keys are names as written, so lookups are candidates that callers confirm by resolving.
+ * Performance: maintained incrementally by the platform, so "who depends on this type" is an
+ * index lookup instead of an inheritor or reference search.
+ */
+public class AutoserializableImpactIndex extends FileBasedIndexExtension<String, List<String>> {
+
+    public static final ID<String, List<String>> NAME =
+            ID.create("com.brotech.autoserializablechecker.impact");
+
+    private static final int VERSION = 1;
+
+    // JDK types that never are project classes - indexing them would only bloat the index
+    private static final Set<String> SKIPPED_NAMES = Set.of(
+            "Object", "String", "Integer", "Long", "Short", "Byte", "Character", "Boolean", "Double", "Float",
+            "Number", "BigDecimal", "BigInteger", "List", "ArrayList", "Set", "HashSet", "Map", "HashMap",
+            "Collection", "Optional", "Date", "Instant", "LocalDate", "LocalDateTime", "UUID", "Serializable"
+    );
+
+    @NotNull
+    @Override
+    public ID<String, List<String>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<String>, FileContent> getIndexer() {
+        return inputData -> {
+            PsiFile psiFile = inputData.getPsiFile();
+            if (!(psiFile instanceof PsiJavaFile)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, List<String>> result = new HashMap<>();
+            for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+                collectDependencies(psiClass, result);
+            }
+            return result;
+        };
+    }
+
+    private static void collectDependencies(@NotNull PsiClass psiClass, @NotNull Map<String, List<String>> result) {
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName != null) {
+            Set<String> referenced = new HashSet<>();
+            addReferenceNames(psiClass.getExtendsList(), referenced);
+            addReferenceNames(psiClass.getImplementsList(), referenced);
+            for (PsiField field : psiClass.getFields()) {
+                if (AutoserializableShapeFingerprint.isSerializedField(field)) {
+                    addTypeNames(field.getType(), referenced);
+                }
+            }
+            referenced.removeAll(SKIPPED_NAMES);
+            for (String name : referenced) {
+                result.computeIfAbsent(name, key -> new ArrayList<>()).add(qualifiedName);
+            }
+        }
+
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            collectDependencies(innerClass, result);
+        }
+    }
+
+    private static void addReferenceNames(@Nullable PsiReferenceList list, @NotNull Set<String> target) {
+        if (list == null) {
+            return;
+        }
+        for (PsiJavaCodeReferenceElement ref : list.getReferenceElements()) {
+            String name = ref.getReferenceName();
+            if (name != null) {
+                target.add(name);
+            }
+        }
+    }
+
+    /**
+     * Short names of all class types in a field type, e.g. {@code Map<String, List<Address>>[]}
+     * gives Map, String, List and Address. Reads names only, never resolves.
+     */
+    static void addTypeNames(@NotNull PsiType type, @NotNull Set<String> target) {
+        PsiType component = type.getDeepComponentType();
+        if (component instanceof PsiWildcardType) {
+            PsiType bound = ((PsiWildcardType) component).getBound();
+            if (bound != null) {
+                addTypeNames(bound, target);
+            }
+            return;
+        }
+        if (!(component instanceof PsiClassType)) {
+            return; // Primitives
+        }
+        PsiClassType classType = (PsiClassType) component;
+        target.add(classType.getClassName());
+        for (PsiType parameter : classType.getParameters()) {
+            addTypeNames(parameter, target);
+        }
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<String>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<String> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (String dependent : value) {
+                    IOUtil.writeUTF(out, dependent);
+                }
+            }
+
+            @Override
+            public List<String> read(@NotNull DataInput in) throws IOException {
+                int size = DataInputOutputUtil.readINT(in);
+                List<String> dependents = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    dependents.add(IOUtil.readUTF(in));
+                }
+                return dependents;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -0,0 +1,195 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWithId;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Persistent index of classes that directly declare an AutoSerializable marker.
+ * Key is the class's qualified name, value is its {@link AutoserializableDeclaration}.
+ * Performance: answers "does this file/project contain AutoSerializable classes" without
+ * loading PSI or scanning file text.
+ */
+public class AutoserializableIndex extends FileBasedIndexExtension<String, AutoserializableDeclaration> {
+
+    public static final ID<String, AutoserializableDeclaration> NAME =
+            ID.create("com.brotech.autoserializablechecker.declarations");
+
+    private static final int VERSION = 4;
+
+    @NotNull
+    @Override
+    public ID<String, AutoserializableDeclaration> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, AutoserializableDeclaration, FileContent> getIndexer() {
+        return inputData -> {
+            // Cheap text check first - most files never reach the PSI walk
+            if (!AutoserializableUtil.mightContainMarkerText(inputData.getContentAsText())) {
+                return Collections.emptyMap();
+            }
+
+            PsiFile psiFile = inputData.getPsiFile();
+            if (!(psiFile instanceof PsiJavaFile)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, AutoserializableDeclaration> result = new HashMap<>();
+            for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+                collectDeclarations(psiClass, result);
+            }
+            return result;
+        };
+    }
+
+    private static void collectDeclarations(@NotNull PsiClass psiClass,
+                                            @NotNull Map<String, AutoserializableDeclaration> result) {
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName != null) {
+            AutoserializableDeclaration.MarkerKind kind = AutoserializableUtil.findDeclaredMarkerKind(psiClass);
+            if (kind != null) {
+                result.put(qualifiedName, new AutoserializableDeclaration(
+                        qualifiedName, kind, getDeclaredSupertypes(psiClass)));
+            }
+        }
+
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            collectDeclarations(innerClass, result);
+        }
+    }
+
+    @NotNull
+    private static List<String> getDeclaredSupertypes(@NotNull PsiClass psiClass) {
+        List<String> supertypes = new ArrayList<>();
+        addReferenceTexts(psiClass.getExtendsList(), supertypes);
+        addReferenceTexts(psiClass.getImplementsList(), supertypes);
+        return supertypes;
+    }
+
+    private static void addReferenceTexts(@Nullable PsiReferenceList list, @NotNull List<String> target) {
+        if (list == null) {
+            return;
+        }
+        Collections.addAll(target, AutoserializableUtil.getWrittenReferenceNames(list));
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<AutoserializableDeclaration> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, AutoserializableDeclaration value) throws IOException {
+                IOUtil.writeUTF(out, value.getClassName());
+                out.writeByte(value.getMarkerKind().ordinal());
+                List<String> supertypes = value.getSupertypes();
+                out.writeInt(supertypes.size());
+                for (String supertype : supertypes) {
+                    IOUtil.writeUTF(out, supertype);
+                }
+            }
+
+            @Override
+            public AutoserializableDeclaration read(@NotNull DataInput in) throws IOException {
+                String className = IOUtil.readUTF(in);
+                AutoserializableDeclaration.MarkerKind kind =
+                        AutoserializableDeclaration.MarkerKind.values()[in.readByte()];
+                int size = in.readInt();
+                List<String> supertypes = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    supertypes.add(IOUtil.readUTF(in));
+                }
+                return new AutoserializableDeclaration(className, kind, supertypes);
+            }
+        };
+    }
+
+    /**
+     * The indexed declarations depend on the configured markers, so their hash is part of the
+     * version: markers changed while the IDE was closed (Settings Sync, an imported or edited
+     * settings file) rebuild the index on the next start. Changes during a session rebuild it
+     * through {@link AutoserializableUtil#updateMarkersFromSettings}.
+     */
+    @Override
+    public int getVersion() {
+        return VERSION * 31 + AutoserializableUtil.getMarkerMatcher().getMarkersHash();
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Returns the indexed declarations of a file keyed by qualified class name, or {@code null}
+     * when the index cannot answer (dumb mode, file outside project content, non-physical file).
+     * Callers should fall back to PSI analysis on {@code null}.
+     */
+    @Nullable
+    public static Map<String, AutoserializableDeclaration> getFileDeclarations(@NotNull PsiFile psiFile) {
+        VirtualFile file = psiFile.getVirtualFile();
+        return file != null ? getFileDeclarations(psiFile.getProject(), file) : null;
+    }
+
+    /**
+     * Same as {@link #getFileDeclarations(PsiFile)} but works from the VFS alone, so callers
+     * holding only a {@link VirtualFile} can skip loading PSI entirely.
+     */
+    @Nullable
+    public static Map<String, AutoserializableDeclaration> getFileDeclarations(@NotNull Project project,
+                                                                              @NotNull VirtualFile file) {
+        if (!(file instanceof VirtualFileWithId) || DumbService.isDumb(project)) {
+            return null;
+        }
+        if (!ProjectFileIndex.getInstance(project).isInContent(file)) {
+            return null;
+        }
+        return FileBasedIndex.getInstance().getFileData(NAME, file, project);
+    }
+
+    /**
+     * Checks whether any file in the scope declares an AutoSerializable class.
+     * Stops at the first live key, so the cost does not grow with project size.
+     */
+    public static boolean containsDeclarations(@NotNull Project project, @NotNull GlobalSearchScope scope) {
+        if (DumbService.isDumb(project)) {
+            return true; // Can't tell yet - let callers do the full check
+        }
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        // Keys may be stale, so confirm each candidate against the scope before stopping
+        return !index.processAllKeys(NAME,
+                key -> index.getContainingFiles(NAME, key, scope).isEmpty(),
+                scope, null);
+    }
+}
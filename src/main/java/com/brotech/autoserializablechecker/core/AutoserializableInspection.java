@@ -2,35 +2,203 @@ package com.brotech.autoserializablechecker.core;
 
 
 import com.intellij.codeInspection.AbstractBaseJavaLocalInspectionTool;
+import com.intellij.codeInspection.LocalInspectionToolSession;
+import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Optimized inspection that uses cached checks for @AutoSerializable detection.
+ * Also reports when a class's serialized shape differs from its baseline
+ * (see {@link AutoserializableShapeBaseline}), including when that changes the default
+ * serialVersionUID (see {@link AutoserializableSerialVersionUid}).
+ * Classes that are neither declared in {@link AutoserializableIndex} nor extend anything
+ * are skipped without touching annotations or resolving supertypes.
+ * Classes that aren't AutoSerializable themselves are flagged when AutoSerializable classes
+ * inherit from them or serialize them in a field (see {@link AutoserializableImpact}).
+ * While indexing, classes are flagged from their source alone (see
+ * {@link AutoserializableSyntacticDetector}); the daemon re-runs the inspection when indexing
+ * finishes, which replaces those warnings with the resolved ones.
  */
-public class AutoserializableInspection extends AbstractBaseJavaLocalInspectionTool {
+public class AutoserializableInspection extends AbstractBaseJavaLocalInspectionTool implements DumbAware {
+
+    // Time this inspection spent in its own visitor for the session's file
+    private static final Key<AtomicLong> FILE_TIME = Key.create("autoserializable.inspection.fileTime");
+
+    @NotNull
+    @Override
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder,
+                                          boolean isOnTheFly,
+                                          @NotNull LocalInspectionToolSession session) {
+        AtomicLong fileTime = new AtomicLong();
+        session.putUserData(FILE_TIME, fileTime);
+        return createVisitor(holder, fileTime);
+    }
+
+    @Override
+    public void inspectionFinished(@NotNull LocalInspectionToolSession session, @NotNull ProblemsHolder problemsHolder) {
+        AtomicLong fileTime = session.getUserData(FILE_TIME);
+        if (fileTime != null) {
+            AutoserializableMetrics.getInstance().record(AutoserializableMetrics.Histogram.INSPECTION_FILE_TIME, fileTime.get());
+        }
+    }
 
     @NotNull
     @Override
     public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        return createVisitor(holder, new AtomicLong());
+    }
+
+    @NotNull
+    private PsiElementVisitor createVisitor(@NotNull ProblemsHolder holder, @NotNull AtomicLong fileTime) {
+        if (DumbService.isDumb(holder.getProject())) {
+            return createPreliminaryVisitor(holder, fileTime);
+        }
+        AutoserializableMetrics metrics = AutoserializableMetrics.getInstance();
+        // One index lookup per file; null means the index can't answer and every class is checked
+        long lookupStart = System.nanoTime();
+        Map<String, AutoserializableDeclaration> declarations =
+                AutoserializableIndex.getFileDeclarations(holder.getFile());
+        fileTime.addAndGet(System.nanoTime() - lookupStart);
+
         return new JavaElementVisitor() {
             @Override
             public void visitClass(PsiClass aClass) {
+                long start = System.nanoTime();
+                try {
+                    checkClass(aClass);
+                } finally {
+                    fileTime.addAndGet(System.nanoTime() - start);
+                }
+            }
+
+            private void checkClass(PsiClass aClass) {
                 super.visitClass(aClass);
 
+                metrics.increment(AutoserializableMetrics.Counter.INSPECTION_CLASSES);
+                if (declarations != null && !AutoserializableUtil.couldBeAutoserializable(aClass, declarations)) {
+                    metrics.increment(AutoserializableMetrics.Counter.INSPECTION_CLASSES_SKIPPED);
+                    checkImpact(aClass);
+                    return;
+                }
+
                 // Use cached utility - much faster on repeated inspections
-                if (AutoserializableUtil.isAutoserializable(aClass)) {
+                if (!AutoserializableUtil.isAutoserializable(aClass)) {
+                    checkImpact(aClass);
+                } else {
                     PsiIdentifier nameIdentifier = aClass.getNameIdentifier();
                     if (nameIdentifier != null) {
+                        // Cached; pinning the default keeps the serialized form stable across later edits
+                        Long defaultUid = AutoserializableShapeFingerprint.getExplicitSerialVersionUid(aClass) == null
+                                ? AutoserializableSerialVersionUid.getDefault(aClass)
+                                : null;
                         holder.registerProblem(
                                 nameIdentifier,
                                 "This class uses @AutoSerializable. Be careful when modifying to maintain serialization compatibility.",
+                                com.intellij.codeInspection.ProblemHighlightType.WARNING,
+                                defaultUid != null
+                                        ? new LocalQuickFix[]{new AddSerialVersionUidQuickFix(defaultUid, false)}
+                                        : LocalQuickFix.EMPTY_ARRAY
+                        );
+                        // Only real shape changes (fields, serialVersionUID, supertypes) - not comments or method bodies
+                        AutoserializableShapeBaseline baseline = AutoserializableShapeBaseline.getInstance(holder.getProject());
+                        checkShapeChange(aClass, nameIdentifier, baseline, baseline.hasShapeChanged(aClass), defaultUid);
+                    }
+                }
+            }
+
+            private void checkShapeChange(PsiClass aClass,
+                                          PsiIdentifier nameIdentifier,
+                                          AutoserializableShapeBaseline baseline,
+                                          boolean shapeChanged,
+                                          Long defaultUid) {
+                String message = "The serialized shape of this class changed (fields, serialVersionUID or supertypes). Check serialization compatibility.";
+                Long previousUid = aClass.getQualifiedName() != null ? baseline.getBaselineUid(aClass.getQualifiedName()) : null;
+                if (defaultUid != null && previousUid != null && !previousUid.equals(defaultUid)) {
+                    // Without a declaration the JVM now computes a different serialVersionUID - method
+                    // and modifier edits change it too, not only the shape
+                    holder.registerProblem(
+                            nameIdentifier,
+                            (shapeChanged ? message + " Its" : "This class's") + " default serialVersionUID changed from "
+                                    + previousUid + "L to " + defaultUid
+                                    + "L, so previously serialized instances can no longer be read.",
+                            com.intellij.codeInspection.ProblemHighlightType.WARNING,
+                            new AddSerialVersionUidQuickFix(previousUid, true),
+                            new AcceptSerializedShapeQuickFix()
+                    );
+                } else if (shapeChanged) {
+                    holder.registerProblem(
+                            nameIdentifier,
+                            message,
+                            com.intellij.codeInspection.ProblemHighlightType.WARNING,
+                            new AcceptSerializedShapeQuickFix()
+                    );
+                }
+            }
+
+            // Base classes and field types of AutoSerializable classes are part of their serialized form
+            private void checkImpact(PsiClass aClass) {
+                PsiIdentifier nameIdentifier = aClass.getNameIdentifier();
+                if (nameIdentifier == null) {
+                    return;
+                }
+                List<String> impacted = AutoserializableImpact.getImpactedTypes(aClass);
+                if (!impacted.isEmpty()) {
+                    holder.registerProblem(
+                            nameIdentifier,
+                            "Changes to this class affect the serialized form of " + describe(impacted) + ".",
+                            com.intellij.codeInspection.ProblemHighlightType.WARNING
+                    );
+                }
+            }
+        };
+    }
+
+    /**
+     * Dumb mode: no resolving, so no shape, serialVersionUID or impact checks and no quick-fixes.
+     */
+    @NotNull
+    private static PsiElementVisitor createPreliminaryVisitor(@NotNull ProblemsHolder holder, @NotNull AtomicLong fileTime) {
+        return new JavaElementVisitor() {
+            @Override
+            public void visitClass(PsiClass aClass) {
+                long start = System.nanoTime();
+                try {
+                    super.visitClass(aClass);
+                    PsiIdentifier nameIdentifier = aClass.getNameIdentifier();
+                    if (nameIdentifier != null && AutoserializableSyntacticDetector.isLikelyAutoserializable(aClass)) {
+                        holder.registerProblem(
+                                nameIdentifier,
+                                "This class appears to use @AutoSerializable (preliminary while indexing). Be careful when modifying to maintain serialization compatibility.",
                                 com.intellij.codeInspection.ProblemHighlightType.WARNING
                         );
                     }
+                } finally {
+                    fileTime.addAndGet(System.nanoTime() - start);
                 }
             }
         };
     }
+
+    private static String describe(List<String> impacted) {
+        StringBuilder text = new StringBuilder();
+        text.append(impacted.size()).append(" AutoSerializable class").append(impacted.size() == 1 ? "" : "es").append(": ");
+        int shown = Math.min(3, impacted.size());
+        for (int i = 0; i < shown; i++) {
+            text.append(i == 0 ? "" : ", ").append(StringUtil.getShortName(impacted.get(i)));
+        }
+        if (impacted.size() > shown) {
+            text.append(", …");
+        }
+        return text.toString();
+    }
 }
@@ -0,0 +1,292 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.OrderEnumerator;
+import com.intellij.openapi.vfs.JarFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.CommonClassNames;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.util.PsiUtilCore;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * AutoSerializable verdicts of library classes, read from the class files in their jars instead
+ * of from decompiled PSI.
+ * Performance improvements:
+ * - Class headers are read straight from the jar; annotations are only parsed for class files
+ *   whose constant pool mentions a marker (see {@link AutoserializableClassFileReader})
+ * - Each jar is summarized once: verdicts that can be decided inside the jar are precomputed,
+ *   the rest only keep the supertypes that lie outside the jar
+ * - Summaries are keyed by a content hash of the jar's central directory (entry names, sizes
+ *   and CRCs), so the same library in several projects or locations is read once per IDE session
+ * - Library jars are read in parallel at project open; a jar that isn't summarized yet is
+ *   read in the background and the PSI walk is used meanwhile
+ * - Summaries are softly referenced and rebuilt if the memory was needed elsewhere
+ */
+public class AutoserializableLibraryClasses {
+
+    private static final Logger LOG = Logger.getInstance(AutoserializableLibraryClasses.class);
+    private static final String[] NO_NAMES = new String[0];
+
+    // Jar path, size and stamp -> content hash, so unchanged jars aren't hashed again
+    private final Map<String, String> contentHashes = new ConcurrentHashMap<>();
+    // Content hash and markers hash -> summary
+    private final Map<String, JarSummary> summaries = ContainerUtil.createConcurrentSoftValueMap();
+    // Jars being read in the background
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+    public static AutoserializableLibraryClasses getInstance() {
+        return ApplicationManager.getApplication().getService(AutoserializableLibraryClasses.class);
+    }
+
+    /**
+     * Summary of the jar a compiled class comes from, or {@code null} if the class is not from a
+     * jar or the jar hasn't been read yet (reading is then started in the background).
+     */
+    @Nullable
+    JarSummary findSummary(@NotNull PsiClass compiledClass) {
+        VirtualFile classFile = PsiUtilCore.getVirtualFile(compiledClass);
+        VirtualFile jar = classFile != null ? JarFileSystem.getInstance().getVirtualFileForJar(classFile) : null;
+        if (jar == null) {
+            return null;
+        }
+        JarSummary summary = getCached(jar);
+        if (summary == null && scheduled.add(jar.getPath())) {
+            ApplicationManager.getApplication().executeOnPooledThread(() -> {
+                try {
+                    summarize(jar);
+                } finally {
+                    scheduled.remove(jar.getPath());
+                }
+            });
+        }
+        return summary;
+    }
+
+    /**
+     * Reads every library jar of the project that isn't summarized yet, in parallel.
+     */
+    public void prefetch(@NotNull Project project, @NotNull ProgressIndicator indicator) {
+        List<VirtualFile> jars = ReadAction.compute(() -> {
+            List<VirtualFile> result = new ArrayList<>();
+            if (project.isDisposed()) {
+                return result;
+            }
+            for (VirtualFile root : OrderEnumerator.orderEntries(project).librariesOnly().classes().getRoots()) {
+                VirtualFile jar = JarFileSystem.getInstance().getVirtualFileForJar(root);
+                if (jar != null) {
+                    result.add(jar);
+                }
+            }
+            return result;
+        });
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(jars, indicator, jar -> {
+            summarize(jar);
+            return true;
+        });
+    }
+
+    @Nullable
+    private JarSummary getCached(@NotNull VirtualFile jar) {
+        String contentHash = contentHashes.get(getStampKey(jar));
+        return contentHash != null ? summaries.get(getSummaryKey(contentHash)) : null;
+    }
+
+    private void summarize(@NotNull VirtualFile jar) {
+        if (getCached(jar) != null) {
+            return;
+        }
+        AutoserializableMarkerMatcher markers = AutoserializableUtil.getMarkerMatcher();
+        try (ZipFile zip = new ZipFile(jar.getPath())) {
+            List<ZipEntry> classEntries = new ArrayList<>();
+            String contentHash = hashClassEntries(zip, classEntries);
+            contentHashes.put(getStampKey(jar), contentHash);
+            String summaryKey = getSummaryKey(contentHash);
+            if (summaries.containsKey(summaryKey)) {
+                return; // Same content already read from another location
+            }
+
+            Map<String, AutoserializableClassFileReader.ClassHeader> headers = new HashMap<>();
+            for (ZipEntry entry : classEntries) {
+                ProgressManager.checkCanceled();
+                byte[] bytes;
+                try (InputStream in = zip.getInputStream(entry)) {
+                    bytes = in.readAllBytes();
+                }
+                AutoserializableClassFileReader.ClassHeader header = AutoserializableClassFileReader.read(bytes, markers);
+                if (header != null) {
+                    headers.putIfAbsent(header.name, header);
+                }
+            }
+            summaries.put(summaryKey, new JarSummary(headers));
+        } catch (IOException e) {
+            LOG.debug("Cannot read library jar " + jar.getPath(), e);
+        }
+    }
+
+    /**
+     * Hash of the class entries' names, sizes and CRCs from the central directory - identifies
+     * the content without reading it. Collects the entries to read into {@code classEntries}.
+     */
+    @NotNull
+    private static String hashClassEntries(@NotNull ZipFile zip, @NotNull List<ZipEntry> classEntries) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] numbers = new byte[16];
+        for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+            ZipEntry entry = entries.nextElement();
+            String name = entry.getName();
+            // Versioned entries of multi-release jars would shadow the base classes' headers
+            if (entry.isDirectory() || !name.endsWith(".class") || name.startsWith("META-INF/")
+                    || name.endsWith("module-info.class")) {
+                continue;
+            }
+            classEntries.add(entry);
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            putLong(numbers, 0, entry.getSize());
+            putLong(numbers, 8, entry.getCrc());
+            digest.update(numbers);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void putLong(byte[] target, int offset, long value) {
+        for (int i = 0; i < 8; i++) {
+            target[offset + i] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    @NotNull
+    private static String getStampKey(@NotNull VirtualFile jar) {
+        return jar.getPath() + ':' + jar.getLength() + ':' + jar.getTimeStamp();
+    }
+
+    @NotNull
+    private static String getSummaryKey(@NotNull String contentHash) {
+        // Directly marked classes depend on the configured markers
+        return contentHash + ':' + AutoserializableUtil.getMarkerMatcher().getMarkersHash();
+    }
+
+    /**
+     * Verdicts of one jar's classes as far as the jar itself can decide them.
+     */
+    static final class JarSummary {
+        // Every class summarized; others (unreadable, multi-release only, names the reader can't
+        // map back to PSI) are unknown rather than not AutoSerializable
+        private final Set<String> known;
+        // Classes that reach a marker through supertypes inside the jar
+        private final Set<String> autoserializable = new HashSet<>();
+        // Other classes -> supertypes outside the jar that their verdict depends on
+        private final Map<String, String[]> externalSupertypes = new HashMap<>();
+
+        JarSummary(@NotNull Map<String, AutoserializableClassFileReader.ClassHeader> headers) {
+            known = new HashSet<>(headers.keySet());
+            Map<String, Object> resolved = new HashMap<>();
+            Map<String, String> names = new HashMap<>(); // Interns the repeated external names
+            for (String name : headers.keySet()) {
+                Object result = resolve(name, headers, resolved, names);
+                if (result == Boolean.TRUE) {
+                    autoserializable.add(name);
+                } else {
+                    @SuppressWarnings("unchecked")
+                    Set<String> external = (Set<String>) result;
+                    if (!external.isEmpty()) {
+                        externalSupertypes.put(name, external.toArray(NO_NAMES));
+                    }
+                }
+            }
+        }
+
+        /**
+         * {@link Boolean#TRUE}, or the set of supertypes outside the jar that still need checking.
+         */
+        @NotNull
+        private static Object resolve(@NotNull String name,
+                                      @NotNull Map<String, AutoserializableClassFileReader.ClassHeader> headers,
+                                      @NotNull Map<String, Object> resolved,
+                                      @NotNull Map<String, String> names) {
+            Object cached = resolved.get(name);
+            if (cached != null) {
+                return cached;
+            }
+            AutoserializableClassFileReader.ClassHeader header = headers.get(name);
+            resolved.put(name, Collections.emptySet()); // Cycle guard
+            if (header.direct) {
+                resolved.put(name, Boolean.TRUE);
+                return Boolean.TRUE;
+            }
+
+            Set<String> external = new LinkedHashSet<>();
+            for (String superName : header.supertypes) {
+                if (superName == null || CommonClassNames.JAVA_LANG_OBJECT.equals(superName)) {
+                    continue;
+                }
+                if (!headers.containsKey(superName)) {
+                    external.add(names.computeIfAbsent(superName, key -> key));
+                    continue;
+                }
+                Object superResult = resolve(superName, headers, resolved, names);
+                if (superResult == Boolean.TRUE) {
+                    resolved.put(name, Boolean.TRUE);
+                    return Boolean.TRUE;
+                }
+                @SuppressWarnings("unchecked")
+                Set<String> superExternal = (Set<String>) superResult;
+                external.addAll(superExternal);
+            }
+            resolved.put(name, external);
+            return external;
+        }
+
+        boolean contains(@NotNull String qualifiedName) {
+            return known.contains(qualifiedName);
+        }
+
+        boolean isAutoserializable(@NotNull String qualifiedName) {
+            return autoserializable.contains(qualifiedName);
+        }
+
+        /**
+         * Supertypes outside this jar whose verdicts decide the class's verdict; empty if the
+         * class is known not to be AutoSerializable. Only meaningful if {@link #contains} it.
+         */
+        @NotNull
+        String[] getExternalSupertypes(@NotNull String qualifiedName) {
+            return externalSupertypes.getOrDefault(qualifiedName, NO_NAMES);
+        }
+    }
+}
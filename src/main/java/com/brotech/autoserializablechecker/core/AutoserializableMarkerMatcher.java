@@ -0,0 +1,145 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, compiled form of the configured marker names.
+ * A name matches if it equals a marker or ends with "." + marker.
+ * Performance: markers are stored reversed in a trie, so a match walks the name once from its
+ * end - cost is bounded by the longest marker, not by how many markers are registered, and
+ * nothing is allocated per check.
+ */
+public final class AutoserializableMarkerMatcher {
+
+    private final List<String> markers;
+    private final Node root = new Node();
+    private final Map<String, Set<String>> qualifiedByShortName;
+    private final AutoserializableTextMatcher textMatcher;
+    private final int hash;
+
+    public AutoserializableMarkerMatcher(@NotNull Collection<String> markerNames) {
+        TreeSet<String> unique = new TreeSet<>();
+        for (String name : markerNames) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                unique.add(trimmed);
+            }
+        }
+        if (unique.isEmpty()) {
+            throw new IllegalArgumentException("At least one marker is required");
+        }
+        markers = List.copyOf(unique);
+
+        for (String marker : markers) {
+            Node node = root;
+            for (int i = marker.length() - 1; i >= 0; i--) {
+                node = node.getOrAddChild(marker.charAt(i));
+            }
+            node.terminal = true;
+        }
+
+        qualifiedByShortName = Collections.unmodifiableMap(markers.stream()
+                .filter(name -> name.indexOf('.') >= 0)
+                .collect(Collectors.groupingBy(StringUtil::getShortName, Collectors.toUnmodifiableSet())));
+        // Every marker's simple name, e.g. "AutoSerializable" - also covers "@AutoSerializable"
+        textMatcher = new AutoserializableTextMatcher(
+                markers.stream().map(StringUtil::getShortName).collect(Collectors.toSet()));
+        hash = String.join("\n", markers).hashCode();
+    }
+
+    public boolean matches(@NotNull CharSequence name) {
+        Node node = root;
+        for (int i = name.length() - 1; i >= 0; i--) {
+            node = node.getChild(name.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            // A marker ends here: it's the whole name or a "."-separated suffix of it
+            if (node.terminal && (i == 0 || name.charAt(i - 1) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Qualified markers whose simple name is {@code shortName}, or {@code null} if there are none.
+     */
+    @Nullable
+    public Set<String> getQualifiedMarkers(@NotNull String shortName) {
+        return qualifiedByShortName.get(shortName);
+    }
+
+    /**
+     * Pre-filter that finds any marker's simple name in file text.
+     */
+    @NotNull
+    public AutoserializableTextMatcher getTextMatcher() {
+        return textMatcher;
+    }
+
+    @NotNull
+    public List<String> getMarkers() {
+        return markers;
+    }
+
+    /**
+     * Stable across sessions for the same marker set; used to discard persisted verdicts
+     * computed with different markers.
+     */
+    public int getMarkersHash() {
+        return hash;
+    }
+
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        // Sorted keys; markers share long suffixes, so most nodes have a single child
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private boolean terminal;
+
+        @Nullable
+        Node getChild(char c) {
+            if (keys.length == 1) {
+                return keys[0] == c ? children[0] : null;
+            }
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        @NotNull
+        Node getOrAddChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.application.ApplicationInfo;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application-wide runtime metrics for the checker's hot paths.
+ * Performance: recording is a {@link LongAdder} increment (plus a bucket index computed with
+ * one leading-zeros instruction for histograms) - no locks, no allocation - so the counters
+ * can stay on permanently. Snapshots are only built when the diagnostics tab or an export asks.
+ */
+public class AutoserializableMetrics {
+
+    public enum Counter {
+        DETECTION_CALLS("detection.calls"),
+        DETECTION_CACHE_MISSES("detection.cacheMisses"),
+        DETECTION_RESOLVES("detection.resolves"),
+        DETECTION_BYTECODE_VERDICTS("detection.bytecodeVerdicts"),
+        PREFILTER_CHECKS("prefilter.checks"),
+        PREFILTER_SKIPS("prefilter.skips"),
+        INSPECTION_CLASSES("inspection.classes"),
+        INSPECTION_CLASSES_SKIPPED("inspection.classesSkipped"),
+        EDITOR_CLASS_CHECKS("editor.classChecks"),
+        EDITOR_FILE_PASSES("editor.filePasses");
+
+        private final String id;
+
+        Counter(String id) {
+            this.id = id;
+        }
+    }
+
+    public enum Histogram {
+        INSPECTION_FILE_TIME("inspection.fileTime", true),
+        LISTENER_QUEUE_DEPTH("listener.queueDepth", false),
+        LISTENER_READ_ACTION_WAIT("listener.readActionWait", true),
+        LISTENER_READ_ACTION_TIME("listener.readActionTime", true),
+        ACTION_LATENCY("action.latency", true),
+        EDITOR_CHECK_TIME("editor.checkTime", true);
+
+        private final String id;
+        private final boolean nanos;
+
+        Histogram(String id, boolean nanos) {
+            this.id = id;
+            this.nanos = nanos;
+        }
+    }
+
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final Map<Histogram, LogHistogram> histograms = new EnumMap<>(Histogram.class);
+    private volatile long resetTime = System.currentTimeMillis();
+
+    public AutoserializableMetrics() {
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+        for (Histogram histogram : Histogram.values()) {
+            histograms.put(histogram, new LogHistogram());
+        }
+    }
+
+    public static AutoserializableMetrics getInstance() {
+        return ApplicationManager.getApplication().getService(AutoserializableMetrics.class);
+    }
+
+    public void increment(@NotNull Counter counter) {
+        counters.get(counter).increment();
+    }
+
+    /**
+     * Records a value: nanoseconds for timers, a plain number otherwise.
+     */
+    public void record(@NotNull Histogram histogram, long value) {
+        histograms.get(histogram).record(value);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} (from {@link System#nanoTime()}).
+     */
+    public void recordSince(@NotNull Histogram histogram, long startNanos) {
+        record(histogram, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Number of values recorded since the last reset.
+     */
+    long getCount(@NotNull Histogram histogram) {
+        return histograms.get(histogram).count.sum();
+    }
+
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        histograms.values().forEach(LogHistogram::reset);
+        resetTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Human-readable snapshot for the diagnostics tab.
+     */
+    @NotNull
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Since %tF %<tT%n%n", resetTime));
+        text.append(String.format("%-32s %12s%n", "Counter", "Value"));
+        for (Counter counter : Counter.values()) {
+            text.append(String.format("%-32s %12d%n", counter.id, counters.get(counter).sum()));
+        }
+        text.append(String.format("%-32s %11.1f%%%n", "detection.cacheHitRatio", 100 * getCacheHitRatio()));
+        text.append(String.format("%-32s %11.1f%%%n", "prefilter.skipRate", 100 * getPrefilterSkipRate()));
+
+        text.append(String.format("%n%-32s %10s %10s %10s %10s %10s%n", "Histogram (ms or count)", "count", "mean", "p50", "p99", "max"));
+        for (Histogram histogram : Histogram.values()) {
+            LogHistogram values = histograms.get(histogram);
+            text.append(String.format("%-32s %10d %10s %10s %10s %10s%n", histogram.id, values.count.sum(),
+                    format(histogram, values.getMean()), format(histogram, values.getPercentile(0.5)),
+                    format(histogram, values.getPercentile(0.99)), format(histogram, values.max.get())));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Machine-readable snapshot, stable field names so exports from many IDEs can be compared.
+     * Timers are in microseconds; percentiles are upper bounds of power-of-two buckets. Numbers
+     * are formatted with {@link Locale#ROOT}, as a decimal comma would not be valid JSON.
+     */
+    @NotNull
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"version\": 1,\n");
+        json.append("  \"ideBuild\": \"").append(StringUtil.escapeStringCharacters(ApplicationInfo.getInstance().getBuild().asString())).append("\",\n");
+        json.append("  \"since\": ").append(resetTime).append(",\n");
+        json.append("  \"timestamp\": ").append(System.currentTimeMillis()).append(",\n");
+        json.append("  \"counters\": {");
+        String separator = "\n";
+        for (Counter counter : Counter.values()) {
+            json.append(separator).append("    \"").append(counter.id).append("\": ").append(counters.get(counter).sum());
+            separator = ",\n";
+        }
+        json.append(separator).append("    \"detection.cacheHitRatio\": ").append(String.format(Locale.ROOT, "%.4f", getCacheHitRatio()));
+        json.append(separator).append("    \"prefilter.skipRate\": ").append(String.format(Locale.ROOT, "%.4f", getPrefilterSkipRate()));
+        json.append("\n  },\n");
+        json.append("  \"histograms\": {");
+        separator = "\n";
+        for (Histogram histogram : Histogram.values()) {
+            LogHistogram values = histograms.get(histogram);
+            json.append(separator).append("    \"").append(histogram.id).append("\": {")
+                    .append("\"unit\": \"").append(histogram.nanos ? "us" : "count").append("\", ")
+                    .append("\"count\": ").append(values.count.sum()).append(", ")
+                    .append("\"mean\": ").append(toUnit(histogram, (long) values.getMean())).append(", ")
+                    .append("\"p50\": ").append(toUnit(histogram, values.getPercentile(0.5))).append(", ")
+                    .append("\"p90\": ").append(toUnit(histogram, values.getPercentile(0.9))).append(", ")
+                    .append("\"p99\": ").append(toUnit(histogram, values.getPercentile(0.99))).append(", ")
+                    .append("\"max\": ").append(toUnit(histogram, values.max.get())).append("}");
+            separator = ",\n";
+        }
+        json.append("\n  }\n}\n");
+        return json.toString();
+    }
+
+    private double getCacheHitRatio() {
+        long calls = counters.get(Counter.DETECTION_CALLS).sum();
+        long misses = counters.get(Counter.DETECTION_CACHE_MISSES).sum();
+        return calls == 0 ? 0 : (double) (calls - misses) / calls;
+    }
+
+    private double getPrefilterSkipRate() {
+        long checks = counters.get(Counter.PREFILTER_CHECKS).sum();
+        return checks == 0 ? 0 : (double) counters.get(Counter.PREFILTER_SKIPS).sum() / checks;
+    }
+
+    private static long toUnit(@NotNull Histogram histogram, long value) {
+        return histogram.nanos ? TimeUnit.NANOSECONDS.toMicros(value) : value;
+    }
+
+    @NotNull
+    private static String format(@NotNull Histogram histogram, double value) {
+        return histogram.nanos ? String.format("%.3f", value / 1_000_000) : String.format("%.0f", value);
+    }
+
+    /**
+     * Histogram with one bucket per power of two: bucket {@code i} holds values in [2^(i-1), 2^i).
+     * Percentiles are approximate (within a factor of two), which is enough to spot regressions.
+     */
+    private static final class LogHistogram {
+        private final LongAdder[] buckets = new LongAdder[65];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        LogHistogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            long clamped = Math.max(0, value);
+            buckets[64 - Long.numberOfLeadingZeros(clamped)].increment();
+            count.increment();
+            sum.add(clamped);
+            max.accumulate(clamped);
+        }
+
+        double getMean() {
+            long total = count.sum();
+            return total == 0 ? 0 : (double) sum.sum() / total;
+        }
+
+        long getPercentile(double percentile) {
+            long total = count.sum();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= rank) {
+                    long upperBound = i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return Math.min(upperBound, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationAction;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.psi.*;
+import com.intellij.util.Alarm;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batches serialized-shape change events of a project into digest notifications.
+ * Performance improvements:
+ * - Events arriving within {@link #DIGEST_WINDOW_MS} become one balloon, however many classes changed
+ * - A token bucket caps the number of balloons per project; while it is empty events keep
+ *   accumulating into the next digest instead of being shown or dropped
+ * - Events hold only names and the file; navigation offsets are resolved in a background read
+ *   action only when the user opens the digest's details
+ * - A new digest expires the previous one, so balloons don't pile up
+ */
+public class AutoserializableNotificationDigest implements Disposable {
+
+    private static final long DIGEST_WINDOW_MS = 2000;
+    private static final int BUCKET_CAPACITY = 3;
+    private static final long TOKEN_REFILL_MS = 30_000;
+    // Distinct classes kept per digest; further ones are only counted
+    private static final int MAX_PENDING_EVENTS = 1000;
+    // Class names written into the balloon itself
+    private static final int MAX_SUMMARY_NAMES = 5;
+
+    private final Project project;
+    private final Alarm alarm;
+    // Guarded by this
+    private final Map<String, Event> pending = new LinkedHashMap<>();
+    private int overflow;
+    private double tokens = BUCKET_CAPACITY;
+    private long lastRefill = System.currentTimeMillis();
+    private boolean emitScheduled;
+    private Notification current;
+
+    public AutoserializableNotificationDigest(@NotNull Project project) {
+        this.project = project;
+        this.alarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, this);
+    }
+
+    public static AutoserializableNotificationDigest getInstance(@NotNull Project project) {
+        return project.getService(AutoserializableNotificationDigest.class);
+    }
+
+    /**
+     * Records that a class's serialized shape changed. Thread-safe and cheap: nothing is shown
+     * before the digest window closes.
+     */
+    public synchronized void add(@NotNull VirtualFile file, @NotNull String className, @NotNull String qualifiedName) {
+        if (pending.size() < MAX_PENDING_EVENTS || pending.containsKey(qualifiedName)) {
+            pending.put(qualifiedName, new Event(file, className, qualifiedName));
+        } else {
+            overflow++;
+        }
+        if (!emitScheduled) {
+            emitScheduled = true;
+            alarm.addRequest(this::emit, DIGEST_WINDOW_MS);
+        }
+    }
+
+    private void emit() {
+        List<Event> events;
+        int more;
+        synchronized (this) {
+            long waitMs = acquireToken();
+            if (waitMs > 0) {
+                alarm.addRequest(this::emit, waitMs); // Rate limited - keep collecting
+                return;
+            }
+            emitScheduled = false;
+            events = new ArrayList<>(pending.values());
+            more = overflow;
+            pending.clear();
+            overflow = 0;
+        }
+        if (!events.isEmpty() && !project.isDisposed()) {
+            show(events, more);
+        }
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if a token was taken, otherwise the time until the next one is available
+     */
+    private long acquireToken() {
+        long now = System.currentTimeMillis();
+        tokens = Math.min(BUCKET_CAPACITY, tokens + (double) (now - lastRefill) / TOKEN_REFILL_MS);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * TOKEN_REFILL_MS);
+    }
+
+    private void show(@NotNull List<Event> events, int more) {
+        int total = events.size() + more;
+        StringBuilder content = new StringBuilder();
+        if (total == 1) {
+            Event event = events.get(0);
+            content.append(String.format("You modified <b>%s</b> (class: %s) which uses @AutoSerializable.<br/>",
+                    event.file.getName(), event.className));
+        } else {
+            content.append("The serialized form of <b>").append(total).append("</b> @AutoSerializable classes changed: ");
+            for (int i = 0; i < Math.min(events.size(), MAX_SUMMARY_NAMES); i++) {
+                content.append(i > 0 ? ", " : "").append(events.get(i).className);
+            }
+            if (total > MAX_SUMMARY_NAMES) {
+                content.append(" and ").append(total - MAX_SUMMARY_NAMES).append(" more");
+            }
+            content.append("<br/>");
+        }
+        content.append("Please ensure:<br/>" +
+                "• Backward compatibility is maintained<br/>" +
+                "• SerialVersionUID is updated if needed<br/>" +
+                "• Changes are documented");
+
+        Notification notification = NotificationGroupManager.getInstance()
+                .getNotificationGroup("Autoserializable Warnings")
+                .createNotification("⚠️ Serialization Warning", content.toString(), NotificationType.WARNING)
+                .addAction(NotificationAction.createSimple("Show classes", () -> showDetails(events)));
+        if (current != null) {
+            current.expire();
+        }
+        current = notification;
+        notification.notify(project);
+    }
+
+    /**
+     * Lists the digest's classes in the tool window. Offsets are looked up only now, off the EDT.
+     */
+    private void showDetails(@NotNull List<Event> events) {
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project)
+                .getToolWindow(AutoserializableToolWindowFactory.TOOL_WINDOW_ID);
+        if (toolWindow == null) {
+            return;
+        }
+        toolWindow.show(() -> {
+            AutoserializableResultsPanel panel = AutoserializableResultsPanel.getInstance(project);
+            if (panel == null) {
+                return;
+            }
+            panel.startScan("Changed serialized forms");
+            ReadAction.nonBlocking(() -> createEntries(events))
+                    .expireWith(this)
+                    .finishOnUiThread(ModalityState.NON_MODAL, entries -> {
+                        entries.forEach(panel::addEntry);
+                        panel.finishScan("Changed serialized forms");
+                    })
+                    .submit(AppExecutorUtil.getAppExecutorService());
+        });
+    }
+
+    @NotNull
+    private List<AutoserializableScanEntry> createEntries(@NotNull List<Event> events) {
+        PsiManager psiManager = PsiManager.getInstance(project);
+        List<AutoserializableScanEntry> entries = new ArrayList<>();
+        for (Event event : events) {
+            ProgressManager.checkCanceled();
+            if (!event.file.isValid()) {
+                continue; // Deleted since
+            }
+            PsiFile psiFile = psiManager.findFile(event.file);
+            PsiClass psiClass = psiFile instanceof PsiJavaFile
+                    ? findClass(((PsiJavaFile) psiFile).getClasses(), event.qualifiedName)
+                    : null;
+            entries.add(new AutoserializableScanEntry(event.className, event.qualifiedName, event.file,
+                    psiClass != null ? psiClass.getTextOffset() : 0));
+        }
+        return entries;
+    }
+
+    @Nullable
+    private static PsiClass findClass(@NotNull PsiClass[] classes, @NotNull String qualifiedName) {
+        for (PsiClass psiClass : classes) {
+            if (qualifiedName.equals(psiClass.getQualifiedName())) {
+                return psiClass;
+            }
+            PsiClass inner = findClass(psiClass.getInnerClasses(), qualifiedName);
+            if (inner != null) {
+                return inner;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void dispose() {
+        pending.clear();
+        current = null;
+    }
+
+    private static final class Event {
+        private final VirtualFile file;
+        private final String className;
+        private final String qualifiedName;
+
+        Event(VirtualFile file, String className, String qualifiedName) {
+            this.file = file;
+            this.className = className;
+            this.qualifiedName = qualifiedName;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Owns the real-time notification listeners of a project: the VFS listener for changes on disk
+ * and the document listener for edits while typing.
+ * The message bus connection, the listeners' alarms and their caches all hang off one child
+ * disposable, so disabling notifications detaches everything immediately (zero cost when off)
+ * and closing the project releases it.
+ */
+public class AutoserializableNotificationService implements Disposable {
+
+    private final Project project;
+    // Non-null while the listener is attached
+    private Disposable listenerDisposable;
+
+    public AutoserializableNotificationService(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static AutoserializableNotificationService getInstance(@NotNull Project project) {
+        return project.getService(AutoserializableNotificationService.class);
+    }
+
+    /**
+     * Attaches or detaches the listener of every open project to match the current settings.
+     */
+    public static void updateAllFromSettings() {
+        for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+            if (!project.isDisposed()) {
+                getInstance(project).updateFromSettings();
+            }
+        }
+    }
+
+    /**
+     * Attaches the listeners if real-time notifications are enabled, detaches them otherwise.
+     */
+    public synchronized void updateFromSettings() {
+        AutoserializableSettingsState settings = AutoserializableSettingsState.getInstance();
+        boolean enabled = settings != null && settings.isNotificationsEnabled();
+        if (enabled && listenerDisposable == null) {
+            attach();
+        } else if (!enabled && listenerDisposable != null) {
+            detach();
+        }
+    }
+
+    private void attach() {
+        listenerDisposable = Disposer.newDisposable(this, "AutoSerializable listeners");
+        AutoserializableDocumentListener documentListener = new AutoserializableDocumentListener(project, listenerDisposable);
+        EditorFactory.getInstance().getEventMulticaster().addDocumentListener(documentListener, listenerDisposable);
+        project.getMessageBus().connect(listenerDisposable).subscribe(
+                VirtualFileManager.VFS_CHANGES,
+                new AutoserializableFileListener(project, listenerDisposable, documentListener)
+        );
+    }
+
+    private void detach() {
+        Disposer.dispose(listenerDisposable); // Disconnects, cancels pending checks, drops caches
+        listenerDisposable = null;
+    }
+
+    @Override
+    public synchronized void dispose() {
+        listenerDisposable = null; // Disposed with this service as its parent
+    }
+}
@@ -0,0 +1,183 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileTypes.FileTypeRegistry;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.psi.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scans whole source roots (project, module or directory) for AutoSerializable classes.
+ * Performance improvements:
+ * - Runs as a cancellable background task, never on the EDT
+ * - Files are processed concurrently on all cores via {@link JobLauncher}
+ * - Each file is analyzed in its own non-blocking read action, so write actions are never delayed
+ * - Results are streamed to the tool window as soon as they are found
+ */
+public class AutoserializableProjectScanner {
+
+    private AutoserializableProjectScanner() {
+    }
+
+    /**
+     * Shows the tool window and starts a background scan of the given roots.
+     * Must be called on the EDT.
+     */
+    public static void scan(@NotNull Project project, @NotNull Collection<VirtualFile> roots, @NotNull String scopeName) {
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project)
+                .getToolWindow(AutoserializableToolWindowFactory.TOOL_WINDOW_ID);
+        if (toolWindow == null) {
+            return;
+        }
+
+        // Content is created lazily, so start the task only once the panel exists
+        toolWindow.show(() -> {
+            AutoserializableResultsPanel panel = AutoserializableResultsPanel.getInstance(project);
+            if (panel == null) {
+                return;
+            }
+            panel.startScan("Scanning " + scopeName);
+            ProgressManager.getInstance().run(new Task.Backgroundable(project, "Analyzing AutoSerializable classes", true) {
+                @Override
+                public void run(@NotNull ProgressIndicator indicator) {
+                    runScan(project, roots, panel, indicator);
+                }
+
+                @Override
+                public void onCancel() {
+                    panel.finishScan("Scan of " + scopeName + " cancelled");
+                }
+
+                @Override
+                public void onSuccess() {
+                    panel.finishScan("Scanned " + scopeName);
+                }
+            });
+        });
+    }
+
+    private static void runScan(@NotNull Project project,
+                                @NotNull Collection<VirtualFile> roots,
+                                @NotNull AutoserializableResultsPanel panel,
+                                @NotNull ProgressIndicator indicator) {
+        indicator.setIndeterminate(false);
+        indicator.setText("Collecting Java files…");
+        List<VirtualFile> files = ReadAction.nonBlocking(() -> collectJavaFiles(project, roots))
+                .wrapProgress(indicator)
+                .expireWith(project)
+                .executeSynchronously();
+
+        int total = files.size();
+        AtomicInteger processed = new AtomicInteger();
+        indicator.setText("Analyzing " + total + " Java files…");
+
+        boolean completed = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(files, indicator, file -> {
+            List<AutoserializableScanEntry> entries = ReadAction.nonBlocking(() -> analyzeFile(project, file))
+                    .inSmartMode(project)
+                    .expireWith(project)
+                    .executeSynchronously();
+            for (AutoserializableScanEntry entry : entries) {
+                panel.addEntry(entry);
+            }
+            indicator.setFraction((double) processed.incrementAndGet() / total);
+            return true;
+        });
+
+        if (!completed) {
+            throw new ProcessCanceledException();
+        }
+    }
+
+    @NotNull
+    static List<VirtualFile> collectJavaFiles(@NotNull Project project, @NotNull Collection<VirtualFile> roots) {
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        FileTypeRegistry fileTypes = FileTypeRegistry.getInstance();
+        // Nested roots (e.g. a module inside the project root) must not be walked twice
+        Set<VirtualFile> files = new LinkedHashSet<>();
+        for (VirtualFile root : roots) {
+            VfsUtilCore.iterateChildrenRecursively(root,
+                    file -> !fileIndex.isExcluded(file),
+                    file -> {
+                        ProgressManager.checkCanceled();
+                        if (!file.isDirectory()
+                                && fileTypes.isFileOfType(file, JavaFileType.INSTANCE)
+                                && fileIndex.isInSourceContent(file)) {
+                            files.add(file);
+                        }
+                        return true;
+                    });
+        }
+        return new ArrayList<>(files);
+    }
+
+    @NotNull
+    private static List<AutoserializableScanEntry> analyzeFile(@NotNull Project project, @NotNull VirtualFile file) {
+        if (!file.isValid()) {
+            return List.of();
+        }
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (!(psiFile instanceof PsiJavaFile)) {
+            return List.of();
+        }
+
+        Map<String, AutoserializableDeclaration> declarations = AutoserializableIndex.getFileDeclarations(psiFile);
+        List<AutoserializableScanEntry> entries = new ArrayList<>();
+        for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+            collectEntries(psiClass, file, declarations, entries);
+        }
+        return entries;
+    }
+
+    /**
+     * Adds the class and, whatever its own verdict, its nested and inner classes.
+     */
+    private static void collectEntries(@NotNull PsiClass psiClass,
+                                       @NotNull VirtualFile file,
+                                       @Nullable Map<String, AutoserializableDeclaration> declarations,
+                                       @NotNull List<AutoserializableScanEntry> entries) {
+        if ((declarations == null || AutoserializableUtil.couldBeAutoserializable(psiClass, declarations))
+                && AutoserializableUtil.isAutoserializable(psiClass)) {
+            String name = psiClass.getName();
+            String qualifiedName = psiClass.getQualifiedName();
+            if (name != null) {
+                entries.add(new AutoserializableScanEntry(
+                        name,
+                        qualifiedName != null ? qualifiedName : name,
+                        file,
+                        psiClass.getTextOffset()));
+            }
+        }
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            collectEntries(innerClass, file, declarations, entries);
+        }
+    }
+
+    /**
+     * Source roots of the whole project, used when nothing narrower is selected.
+     */
+    @NotNull
+    public static List<VirtualFile> getProjectSourceRoots(@NotNull Project project) {
+        return List.of(ProjectRootManager.getInstance(project).getContentSourceRoots());
+    }
+}
@@ -0,0 +1,132 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.CollectionListModel;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.content.Content;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tool window panel listing AutoSerializable classes found by a scan.
+ * Performance: entries can be added from any thread; they are queued and flushed to the
+ * list model in batches with at most one pending EDT update, so a fast scan never floods the EDT.
+ */
+public class AutoserializableResultsPanel extends SimpleToolWindowPanel {
+
+    private final Project project;
+    private final CollectionListModel<AutoserializableScanEntry> model = new CollectionListModel<>();
+    private final JBLabel statusLabel = new JBLabel();
+    private final ConcurrentLinkedQueue<AutoserializableScanEntry> pendingEntries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public AutoserializableResultsPanel(@NotNull Project project) {
+        super(true, true);
+        this.project = project;
+
+        JBList<AutoserializableScanEntry> list = new JBList<>(model);
+        list.setCellRenderer(new ColoredListCellRenderer<>() {
+            @Override
+            protected void customizeCellRenderer(@NotNull JList<? extends AutoserializableScanEntry> list,
+                                                 AutoserializableScanEntry entry,
+                                                 int index, boolean selected, boolean hasFocus) {
+                append(entry.getClassName(), SimpleTextAttributes.REGULAR_BOLD_ATTRIBUTES);
+                append("  " + entry.getQualifiedName(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+                append("  (" + entry.getFile().getName() + ")", SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            }
+        });
+        new DoubleClickListener() {
+            @Override
+            protected boolean onDoubleClick(@NotNull MouseEvent event) {
+                AutoserializableScanEntry entry = list.getSelectedValue();
+                if (entry == null || !entry.getFile().isValid()) {
+                    return false;
+                }
+                new OpenFileDescriptor(project, entry.getFile(), entry.getOffset()).navigate(true);
+                return true;
+            }
+        }.installOn(list);
+
+        statusLabel.setBorder(JBUI.Borders.empty(2, 6));
+        setToolbar(statusLabel);
+        setContent(ScrollPaneFactory.createScrollPane(list));
+    }
+
+    /**
+     * Clears previous results. Must be called on the EDT.
+     */
+    public void startScan(@NotNull String title) {
+        pendingEntries.clear();
+        model.removeAll();
+        statusLabel.setText(title + "…");
+    }
+
+    /**
+     * Thread-safe: queues an entry and schedules a single coalesced EDT flush.
+     */
+    public void addEntry(@NotNull AutoserializableScanEntry entry) {
+        pendingEntries.add(entry);
+        if (flushScheduled.compareAndSet(false, true)) {
+            ApplicationManager.getApplication().invokeLater(this::flush, project.getDisposed());
+        }
+    }
+
+    /**
+     * Thread-safe: flushes remaining entries and shows the final status.
+     */
+    public void finishScan(@NotNull String status) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            flush();
+            statusLabel.setText(status + " - " + model.getSize() + " AutoSerializable class(es)");
+        }, project.getDisposed());
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<AutoserializableScanEntry> batch = new ArrayList<>();
+        AutoserializableScanEntry entry;
+        while ((entry = pendingEntries.poll()) != null) {
+            batch.add(entry);
+        }
+        if (!batch.isEmpty()) {
+            model.add(batch);
+        }
+    }
+
+    /**
+     * Finds the panel in the AutoSerializable tool window. The content is created lazily,
+     * so callers should show the tool window first.
+     */
+    @Nullable
+    public static AutoserializableResultsPanel getInstance(@NotNull Project project) {
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project)
+                .getToolWindow(AutoserializableToolWindowFactory.TOOL_WINDOW_ID);
+        if (toolWindow == null) {
+            return null;
+        }
+        for (Content content : toolWindow.getContentManager().getContents()) {
+            if (content.getComponent() instanceof AutoserializableResultsPanel) {
+                return (AutoserializableResultsPanel) content.getComponent();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A single AutoSerializable class found by a scan. Holds only the file and offset
+ * (no PSI), so large result lists don't keep syntax trees alive.
+ */
+public final class AutoserializableScanEntry {
+
+    private final String className;
+    private final String qualifiedName;
+    private final VirtualFile file;
+    private final int offset;
+
+    public AutoserializableScanEntry(@NotNull String className,
+                                     @NotNull String qualifiedName,
+                                     @NotNull VirtualFile file,
+                                     int offset) {
+        this.className = className;
+        this.qualifiedName = qualifiedName;
+        this.file = file;
+        this.offset = offset;
+    }
+
+    @NotNull
+    public String getClassName() {
+        return className;
+    }
+
+    @NotNull
+    public String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    @NotNull
+    public VirtualFile getFile() {
+        return file;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,365 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.ClassUtil;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiUtil;
+import com.intellij.psi.util.TypeConversionUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Computes the default serialVersionUID the JVM would assign a class (the SHA-1 based algorithm
+ * of {@code java.io.ObjectStreamClass}) from PSI, without compiling.
+ * Members javac adds are modelled as javac 11+ emits them: the default constructor, {@code this$0}
+ * of inner classes, {@code $assertionsDisabled}, static initializers and bridge methods. Enums and
+ * records always have 0.
+ * Performance: cached per class and recomputed only when the class's file, or the file of a
+ * method it overrides, changes. Method bodies are only looked at for {@code assert} statements,
+ * and only if the class's text contains the keyword at all.
+ */
+public final class AutoserializableSerialVersionUid {
+
+    private static final int CLASS_MASK = Modifier.PUBLIC | Modifier.FINAL | Modifier.INTERFACE | Modifier.ABSTRACT;
+    private static final int FIELD_MASK = Modifier.PUBLIC | Modifier.PRIVATE | Modifier.PROTECTED | Modifier.STATIC
+            | Modifier.FINAL | Modifier.VOLATILE | Modifier.TRANSIENT;
+    private static final int METHOD_MASK = Modifier.PUBLIC | Modifier.PRIVATE | Modifier.PROTECTED | Modifier.STATIC
+            | Modifier.FINAL | Modifier.SYNCHRONIZED | Modifier.NATIVE | Modifier.ABSTRACT | Modifier.STRICT;
+
+    private AutoserializableSerialVersionUid() {
+    }
+
+    /**
+     * The explicitly declared serialVersionUID if it is a constant, otherwise the computed default.
+     * {@code null} if neither is known (anonymous or local classes, non-constant declarations).
+     */
+    @Nullable
+    public static Long getEffective(@NotNull PsiClass psiClass) {
+        String explicit = AutoserializableShapeFingerprint.getExplicitSerialVersionUid(psiClass);
+        if (explicit == null) {
+            return getDefault(psiClass);
+        }
+        try {
+            return Long.parseLong(explicit);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The default serialVersionUID, whether or not the class declares one.
+     * {@code null} for anonymous and local classes, whose binary names depend on the compiler.
+     */
+    @Nullable
+    public static Long getDefault(@NotNull PsiClass psiClass) {
+        return CachedValuesManager.getCachedValue(psiClass, () -> {
+            Set<Object> dependencies = new LinkedHashSet<>();
+            PsiFile file = psiClass.getContainingFile();
+            dependencies.add(file != null ? file : PsiModificationTracker.MODIFICATION_COUNT);
+            Long uid = compute(psiClass, dependencies);
+            return CachedValueProvider.Result.create(uid, dependencies.toArray());
+        });
+    }
+
+    @Nullable
+    private static Long compute(@NotNull PsiClass psiClass, @NotNull Set<Object> dependencies) {
+        if (psiClass.isEnum() || psiClass.isRecord()) {
+            return 0L;
+        }
+        if (PsiUtil.isLocalOrAnonymousClass(psiClass)) {
+            return null;
+        }
+        String className = ClassUtil.getJVMClassName(psiClass);
+        if (className == null) {
+            return null;
+        }
+
+        List<Member> fields = new ArrayList<>();
+        List<Member> constructors = new ArrayList<>();
+        List<Member> methods = new ArrayList<>();
+        boolean staticInitializer = collectFields(psiClass, fields);
+        collectMethods(psiClass, constructors, methods, dependencies);
+
+        if (usesAssert(psiClass)) {
+            fields.add(new Member("$assertionsDisabled", Modifier.STATIC | Modifier.FINAL, "Z"));
+            staticInitializer = true;
+        }
+        PsiClass outer = psiClass.getContainingClass();
+        boolean inner = outer != null && !psiClass.hasModifierProperty(PsiModifier.STATIC) && !psiClass.isInterface()
+                && !outer.isInterface();
+        if (inner) {
+            fields.add(new Member("this$0", Modifier.FINAL, getDescriptor(outer)));
+        }
+        if (constructors.isEmpty() && !psiClass.isInterface()) {
+            // Default constructor with the class's access
+            constructors.add(new Member("<init>", getAccess(psiClass), inner ? "(" + getDescriptor(outer) + ")V" : "()V"));
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(className);
+
+            int classModifiers = getModifiers(psiClass) & CLASS_MASK;
+            if (psiClass.isInterface()) {
+                classModifiers = methods.isEmpty() ? classModifiers & ~Modifier.ABSTRACT : classModifiers | Modifier.ABSTRACT;
+            }
+            out.writeInt(classModifiers);
+
+            TreeSet<String> interfaces = new TreeSet<>();
+            for (PsiClassType type : psiClass.isInterface() ? psiClass.getExtendsListTypes() : psiClass.getImplementsListTypes()) {
+                PsiClass resolved = type.resolve();
+                String name = resolved != null ? ClassUtil.getJVMClassName(resolved) : null;
+                interfaces.add(name != null ? name : type.getCanonicalText());
+            }
+            if (psiClass.isAnnotationType()) {
+                interfaces.add("java.lang.annotation.Annotation");
+            }
+            for (String name : interfaces) {
+                out.writeUTF(name);
+            }
+
+            fields.sort(Comparator.comparing(member -> member.name));
+            for (Member field : fields) {
+                int modifiers = field.modifiers & FIELD_MASK;
+                if ((modifiers & Modifier.PRIVATE) == 0 || (modifiers & (Modifier.STATIC | Modifier.TRANSIENT)) == 0) {
+                    out.writeUTF(field.name);
+                    out.writeInt(modifiers);
+                    out.writeUTF(field.descriptor);
+                }
+            }
+
+            if (staticInitializer) {
+                out.writeUTF("<clinit>");
+                out.writeInt(Modifier.STATIC);
+                out.writeUTF("()V");
+            }
+
+            constructors.sort(Comparator.comparing(member -> member.descriptor));
+            writeMethods(out, constructors);
+            methods.sort(Comparator.<Member, String>comparing(member -> member.name).thenComparing(member -> member.descriptor));
+            writeMethods(out, methods);
+            out.flush();
+
+            byte[] hash = MessageDigest.getInstance("SHA").digest(bytes.toByteArray());
+            long uid = 0;
+            for (int i = Math.min(hash.length, 8) - 1; i >= 0; i--) {
+                uid = (uid << 8) | (hash[i] & 0xFF);
+            }
+            return uid;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeMethods(@NotNull DataOutputStream out, @NotNull List<Member> members) throws IOException {
+        for (Member member : members) {
+            int modifiers = member.modifiers & METHOD_MASK;
+            if ((modifiers & Modifier.PRIVATE) == 0) {
+                out.writeUTF(member.name);
+                out.writeInt(modifiers);
+                out.writeUTF(member.descriptor.replace('/', '.'));
+            }
+        }
+    }
+
+    /**
+     * Adds the declared fields and returns whether they need a static initializer.
+     */
+    private static boolean collectFields(@NotNull PsiClass psiClass, @NotNull List<Member> fields) {
+        boolean staticInitializer = false;
+        for (PsiClassInitializer initializer : psiClass.getInitializers()) {
+            staticInitializer |= initializer.hasModifierProperty(PsiModifier.STATIC);
+        }
+        for (PsiField field : psiClass.getFields()) {
+            int modifiers = getModifiers(field);
+            fields.add(new Member(field.getName(), modifiers, getDescriptor(field.getType())));
+            // Constant variables are inlined; any other static initializer runs in <clinit>
+            if ((modifiers & Modifier.STATIC) != 0 && field.hasInitializer() && !PsiUtil.isCompileTimeConstant(field)) {
+                staticInitializer = true;
+            }
+        }
+        return staticInitializer;
+    }
+
+    private static void collectMethods(@NotNull PsiClass psiClass,
+                                       @NotNull List<Member> constructors,
+                                       @NotNull List<Member> methods,
+                                       @NotNull Set<Object> dependencies) {
+        PsiClass outer = psiClass.getContainingClass();
+        String outerParameter = outer != null && !psiClass.hasModifierProperty(PsiModifier.STATIC) && !outer.isInterface()
+                ? getDescriptor(outer) : "";
+        Set<String> declared = new HashSet<>();
+        for (PsiMethod method : psiClass.getMethods()) {
+            int modifiers = getModifiers(method);
+            if (method.isConstructor()) {
+                constructors.add(new Member("<init>", modifiers, "(" + outerParameter + getParameterDescriptors(method) + ")V"));
+                continue;
+            }
+            String descriptor = getDescriptor(method);
+            methods.add(new Member(method.getName(), modifiers, descriptor));
+            declared.add(method.getName() + descriptor);
+        }
+
+        // Bridges for overridden methods whose erasure differs (generic or covariant overrides);
+        // javac adds them to interfaces too, as default methods, even for abstract overrides
+        for (PsiMethod method : psiClass.getMethods()) {
+            if (method.isConstructor() || method.hasModifierProperty(PsiModifier.STATIC)
+                    || method.hasModifierProperty(PsiModifier.PRIVATE)) {
+                continue;
+            }
+            for (PsiMethod superMethod : collectSuperMethods(method, dependencies)) {
+                String descriptor = getDescriptor(superMethod);
+                if (declared.add(method.getName() + descriptor)) {
+                    int access = getModifiers(method) & (Modifier.PUBLIC | Modifier.PROTECTED | Modifier.PRIVATE);
+                    methods.add(new Member(method.getName(), access, descriptor));
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static Set<PsiMethod> collectSuperMethods(@NotNull PsiMethod method, @NotNull Set<Object> dependencies) {
+        Set<PsiMethod> result = new LinkedHashSet<>();
+        List<PsiMethod> queue = new ArrayList<>(List.of(method.findSuperMethods()));
+        while (!queue.isEmpty()) {
+            PsiMethod superMethod = queue.remove(queue.size() - 1);
+            if (result.add(superMethod)) {
+                PsiFile file = superMethod.getContainingFile();
+                if (file != null && !(superMethod instanceof PsiCompiledElement)) {
+                    dependencies.add(file);
+                }
+                queue.addAll(List.of(superMethod.findSuperMethods()));
+            }
+        }
+        return result;
+    }
+
+    private static boolean usesAssert(@NotNull PsiClass psiClass) {
+        PsiFile file = psiClass.getContainingFile();
+        if (file == null || psiClass.getTextRange() == null) {
+            return false;
+        }
+        CharSequence text = file.getViewProvider().getContents();
+        if (StringUtil.indexOf(text, "assert", psiClass.getTextRange().getStartOffset(),
+                psiClass.getTextRange().getEndOffset()) < 0) {
+            return false;
+        }
+        boolean[] found = {false};
+        psiClass.acceptChildren(new JavaRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitClass(PsiClass aClass) {
+                // Nested, local and anonymous classes get their own $assertionsDisabled
+            }
+
+            @Override
+            public void visitAssertStatement(PsiAssertStatement statement) {
+                found[0] = true;
+                stopWalking();
+            }
+        });
+        return found[0];
+    }
+
+    private static int getModifiers(@NotNull PsiModifierListOwner owner) {
+        int modifiers = 0;
+        if (owner.hasModifierProperty(PsiModifier.PUBLIC)) modifiers |= Modifier.PUBLIC;
+        if (owner.hasModifierProperty(PsiModifier.PRIVATE)) modifiers |= Modifier.PRIVATE;
+        if (owner.hasModifierProperty(PsiModifier.PROTECTED)) modifiers |= Modifier.PROTECTED;
+        if (owner.hasModifierProperty(PsiModifier.STATIC)) modifiers |= Modifier.STATIC;
+        if (owner.hasModifierProperty(PsiModifier.FINAL)) modifiers |= Modifier.FINAL;
+        if (owner.hasModifierProperty(PsiModifier.SYNCHRONIZED)) modifiers |= Modifier.SYNCHRONIZED;
+        if (owner.hasModifierProperty(PsiModifier.VOLATILE)) modifiers |= Modifier.VOLATILE;
+        if (owner.hasModifierProperty(PsiModifier.TRANSIENT)) modifiers |= Modifier.TRANSIENT;
+        if (owner.hasModifierProperty(PsiModifier.NATIVE)) modifiers |= Modifier.NATIVE;
+        if (owner.hasModifierProperty(PsiModifier.ABSTRACT)) modifiers |= Modifier.ABSTRACT;
+        // hasModifierProperty includes implicit modifiers, e.g. public abstract interface methods
+        if (owner instanceof PsiClass && ((PsiClass) owner).isInterface()) {
+            modifiers |= Modifier.INTERFACE | Modifier.ABSTRACT;
+        }
+        return modifiers;
+    }
+
+    private static int getAccess(@NotNull PsiClass psiClass) {
+        return getModifiers(psiClass) & (Modifier.PUBLIC | Modifier.PROTECTED | Modifier.PRIVATE);
+    }
+
+    @NotNull
+    private static String getDescriptor(@NotNull PsiMethod method) {
+        PsiType returnType = method.getReturnType();
+        return "(" + getParameterDescriptors(method) + ")" + (returnType != null ? getDescriptor(returnType) : "V");
+    }
+
+    @NotNull
+    private static String getParameterDescriptors(@NotNull PsiMethod method) {
+        StringBuilder descriptor = new StringBuilder();
+        for (PsiParameter parameter : method.getParameterList().getParameters()) {
+            descriptor.append(getDescriptor(parameter.getType()));
+        }
+        return descriptor.toString();
+    }
+
+    @NotNull
+    private static String getDescriptor(@NotNull PsiType type) {
+        PsiType erased = TypeConversionUtil.erasure(type);
+        if (erased instanceof PsiPrimitiveType) {
+            switch (((PsiPrimitiveType) erased).getName()) {
+                case "byte": return "B";
+                case "char": return "C";
+                case "double": return "D";
+                case "float": return "F";
+                case "int": return "I";
+                case "long": return "J";
+                case "short": return "S";
+                case "boolean": return "Z";
+                default: return "V";
+            }
+        }
+        if (erased instanceof PsiArrayType) {
+            return "[" + getDescriptor(((PsiArrayType) erased).getComponentType());
+        }
+        if (erased instanceof PsiClassType) {
+            PsiClass resolved = ((PsiClassType) erased).resolve();
+            if (resolved != null) {
+                return getDescriptor(resolved);
+            }
+        }
+        // Unresolved - the best guess is the written name as a top-level class
+        return "L" + erased.getCanonicalText().replace('.', '/') + ";";
+    }
+
+    @NotNull
+    private static String getDescriptor(@NotNull PsiClass psiClass) {
+        String name = ClassUtil.getJVMClassName(psiClass);
+        return "L" + (name != null ? name : CommonClassNames.JAVA_LANG_OBJECT).replace('.', '/') + ";";
+    }
+
+    private static final class Member {
+        private final String name;
+        private final int modifiers;
+        private final String descriptor;
+
+        Member(String name, int modifiers, String descriptor) {
+            this.name = name;
+            this.modifiers = modifiers;
+            this.descriptor = descriptor;
+        }
+    }
+}
@@ -3,12 +3,16 @@ package com.brotech.autoserializablechecker.core;
 import com.intellij.openapi.options.Configurable;
 import com.intellij.ui.components.JBCheckBox;
 import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
 import com.intellij.ui.components.JBTextField;
 import com.intellij.util.ui.FormBuilder;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Settings UI for the Autoserializable Checker plugin.
@@ -18,6 +22,8 @@ public class AutoserializableSettings implements Configurable {
 
     private JBCheckBox enableNotificationsCheckbox;
     private JBTextField cooldownField;
+    private JBTextArea markersArea;
+    private JBTextField commitBudgetField;
     private JPanel mainPanel;
 
     @Nls
@@ -33,6 +39,8 @@ public class AutoserializableSettings implements Configurable {
                 "Enable real-time file change notifications (may impact performance)"
         );
         cooldownField = new JBTextField();
+        markersArea = new JBTextArea(5, 40);
+        commitBudgetField = new JBTextField();
         
         JBLabel infoLabel = new JBLabel(
                 "<html><body style='width: 400px'>" +
@@ -52,6 +60,16 @@ public class AutoserializableSettings implements Configurable {
                         new JBLabel("Notification cooldown (milliseconds):"),
                         cooldownField
                 )
+                .addLabeledComponent(
+                        new JBLabel("Commit check time budget (milliseconds):"),
+                        commitBudgetField
+                )
+                .addVerticalGap(10)
+                .addLabeledComponent(
+                        new JBLabel("Marker annotations/interfaces (one per line, simple or fully qualified):"),
+                        new JBScrollPane(markersArea),
+                        true
+                )
                 .addComponentFillVertically(new JPanel(), 0)
                 .getPanel();
 
@@ -71,6 +89,18 @@ public class AutoserializableSettings implements Configurable {
             return true;
         }
         
+        if (!parseMarkers().equals(settings.getMarkers())) {
+            return true;
+        }
+        
+        try {
+            if (Long.parseLong(commitBudgetField.getText()) != settings.getCommitCheckBudgetMs()) {
+                return true;
+            }
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        
         try {
             long cooldown = Long.parseLong(cooldownField.getText());
             return cooldown != settings.getCooldownMs();
@@ -95,6 +125,30 @@ public class AutoserializableSettings implements Configurable {
         } catch (NumberFormatException e) {
             // Keep current value if invalid
         }
+        
+        settings.setMarkers(parseMarkers());
+        
+        try {
+            settings.setCommitCheckBudgetMs(Long.parseLong(commitBudgetField.getText()));
+        } catch (NumberFormatException e) {
+            // Keep current value if invalid
+        }
+        
+        // Settings are application-wide: attach or detach the listener in every open project now
+        AutoserializableNotificationService.updateAllFromSettings();
+        // Recompiles the matcher; re-indexes and re-highlights only if the markers really changed
+        AutoserializableUtil.updateMarkersFromSettings();
+    }
+    
+    private List<String> parseMarkers() {
+        List<String> markers = new ArrayList<>();
+        for (String line : markersArea.getText().split("\\R")) {
+            String marker = line.trim();
+            if (!marker.isEmpty() && !markers.contains(marker)) {
+                markers.add(marker);
+            }
+        }
+        return markers;
     }
     
     @Override
@@ -104,10 +158,14 @@ public class AutoserializableSettings implements Configurable {
         if (settings != null) {
             enableNotificationsCheckbox.setSelected(settings.isNotificationsEnabled());
             cooldownField.setText(String.valueOf(settings.getCooldownMs()));
+            markersArea.setText(String.join("\n", settings.getMarkers()));
+            commitBudgetField.setText(String.valueOf(settings.getCommitCheckBudgetMs()));
         } else {
             // Fallback defaults if service not yet initialized
             enableNotificationsCheckbox.setSelected(false); // Disabled by default
             cooldownField.setText("10000");
+            markersArea.setText(String.join("\n", AutoserializableSettingsState.DEFAULT_MARKERS));
+            commitBudgetField.setText("5000");
         }
     }
 }
\ No newline at end of file
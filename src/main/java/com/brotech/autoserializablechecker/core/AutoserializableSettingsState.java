@@ -8,6 +8,9 @@ import com.intellij.util.xmlb.XmlSerializerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Persistent settings state for the AutoSerializable Checker plugin.
  * 
@@ -25,6 +28,15 @@ public class AutoserializableSettingsState implements PersistentStateComponent<A
     
     public boolean notificationsEnabled = false; // DISABLED by default for performance
     public long cooldownMs = 10000; // 10 seconds default
+    public boolean commitCheckEnabled = true;
+    public long commitCheckBudgetMs = 5000; // Commit check gives up and reports partially after this
+    // Annotation/interface names that make a class AutoSerializable; simple or fully qualified
+    public List<String> markers = new ArrayList<>(DEFAULT_MARKERS);
+    
+    public static final List<String> DEFAULT_MARKERS = List.of(
+            "AutoSerializable",
+            "com.brotech.AutoSerializable"
+    );
     
     public static AutoserializableSettingsState getInstance() {
         return ApplicationManager.getApplication().getService(AutoserializableSettingsState.class);
@@ -39,6 +51,8 @@ public class AutoserializableSettingsState implements PersistentStateComponent<A
     @Override
     public void loadState(@NotNull AutoserializableSettingsState state) {
         XmlSerializerUtil.copyBean(state, this);
+        // Reloaded during the session (Settings Sync, imported settings): apply changed markers
+        AutoserializableUtil.markersReloaded();
     }
     
     public boolean isNotificationsEnabled() {
@@ -56,5 +70,36 @@ public class AutoserializableSettingsState implements PersistentStateComponent<A
     public void setCooldownMs(long cooldownMs) {
         this.cooldownMs = Math.max(1000, cooldownMs); // Min 1 second
     }
+    
+    public boolean isCommitCheckEnabled() {
+        return commitCheckEnabled;
+    }
+    
+    public void setCommitCheckEnabled(boolean enabled) {
+        this.commitCheckEnabled = enabled;
+    }
+    
+    public long getCommitCheckBudgetMs() {
+        return commitCheckBudgetMs;
+    }
+    
+    public void setCommitCheckBudgetMs(long budgetMs) {
+        this.commitCheckBudgetMs = Math.max(500, budgetMs); // Min 0.5 seconds
+    }
+    
+    public List<String> getMarkers() {
+        return markers;
+    }
+    
+    public void setMarkers(List<String> markers) {
+        List<String> cleaned = new ArrayList<>();
+        for (String marker : markers) {
+            String trimmed = marker.trim();
+            if (!trimmed.isEmpty() && !cleaned.contains(trimmed)) {
+                cleaned.add(trimmed);
+            }
+        }
+        this.markers = cleaned.isEmpty() ? new ArrayList<>(DEFAULT_MARKERS) : cleaned; // Never empty
+    }
 }
 
@@ -0,0 +1,117 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Baseline of serialized shapes per AutoSerializable class.
+ * The first fingerprint ever seen for a class (usually from highlighting when the file is opened)
+ * becomes its baseline; it moves only when the user accepts the new shape. Baselines are kept
+ * in the project's cache storage, so changes made between sessions - edits after a restart,
+ * checkouts, refactorings of files that weren't open - are still reported.
+ */
+@State(
+    name = "AutoserializableShapeBaseline",
+    storages = @Storage(StoragePathMacros.CACHE_FILE)
+)
+public class AutoserializableShapeBaseline implements PersistentStateComponent<AutoserializableShapeBaseline.BaselineState> {
+
+    private final Map<String, Long> baseline = new ConcurrentHashMap<>();
+    // Effective serialVersionUID at the time the baseline was taken, where it is known
+    private final Map<String, Long> baselineUids = new ConcurrentHashMap<>();
+    // Last changed fingerprint a notification was shown for, so each distinct change is reported once
+    private final Map<String, Long> lastReported = new ConcurrentHashMap<>();
+
+    /**
+     * Serialized form: fingerprints and serialVersionUIDs by qualified name.
+     */
+    public static final class BaselineState {
+        public Map<String, Long> shapes = new HashMap<>();
+        public Map<String, Long> uids = new HashMap<>();
+    }
+
+    @NotNull
+    @Override
+    public BaselineState getState() {
+        BaselineState state = new BaselineState();
+        state.shapes = new HashMap<>(baseline);
+        state.uids = new HashMap<>(baselineUids);
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull BaselineState state) {
+        baseline.clear();
+        baseline.putAll(state.shapes);
+        baselineUids.clear();
+        baselineUids.putAll(state.uids);
+    }
+
+    public static AutoserializableShapeBaseline getInstance(@NotNull Project project) {
+        return project.getService(AutoserializableShapeBaseline.class);
+    }
+
+    /**
+     * Compares the class's current shape against its baseline, recording the baseline on first sight.
+     */
+    public boolean hasShapeChanged(@NotNull PsiClass psiClass) {
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName == null) {
+            return false;
+        }
+        long current = AutoserializableShapeFingerprint.getFingerprint(psiClass);
+        Long previous = baseline.putIfAbsent(qualifiedName, current);
+        if (previous == null) {
+            recordUid(qualifiedName, psiClass);
+        }
+        return previous != null && previous != current;
+    }
+
+    /**
+     * Effective serialVersionUID of the class when its baseline was taken, or {@code null}.
+     */
+    @Nullable
+    public Long getBaselineUid(@NotNull String qualifiedName) {
+        return baselineUids.get(qualifiedName);
+    }
+
+    private void recordUid(@NotNull String qualifiedName, @NotNull PsiClass psiClass) {
+        Long uid = AutoserializableSerialVersionUid.getEffective(psiClass);
+        if (uid != null) {
+            baselineUids.put(qualifiedName, uid);
+        } else {
+            baselineUids.remove(qualifiedName);
+        }
+    }
+
+    /**
+     * Records that a change to {@code fingerprint} was reported. Returns {@code false} if this exact
+     * shape was already reported, so each distinct change notifies only once.
+     */
+    public boolean markReported(@NotNull String qualifiedName, long fingerprint) {
+        Long reported = lastReported.put(qualifiedName, fingerprint);
+        return reported == null || reported != fingerprint;
+    }
+
+    /**
+     * Makes the class's current shape its new baseline.
+     */
+    public void accept(@NotNull PsiClass psiClass) {
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName != null) {
+            baseline.put(qualifiedName, AutoserializableShapeFingerprint.getFingerprint(psiClass));
+            recordUid(qualifiedName, psiClass);
+            lastReported.remove(qualifiedName);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Hashes the serialized shape of a class: its name, serialVersionUID, non-static non-transient
+ * fields (name, type, order) and supertype chain. Comment, formatting and method body edits
+ * don't change the fingerprint.
+ * Performance: cached per class and recomputed only when the class's own file or a file in its
+ * superclass chain changes; only field declarations are read, never method bodies.
+ */
+public final class AutoserializableShapeFingerprint {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private AutoserializableShapeFingerprint() {
+    }
+
+    public static long getFingerprint(@NotNull PsiClass psiClass) {
+        return CachedValuesManager.getCachedValue(psiClass, () -> {
+            Set<Object> dependencies = new LinkedHashSet<>();
+            long fingerprint = computeFingerprint(psiClass, dependencies, new HashSet<>());
+            return CachedValueProvider.Result.create(fingerprint, dependencies.toArray());
+        });
+    }
+
+    private static long computeFingerprint(@NotNull PsiClass psiClass,
+                                           @NotNull Set<Object> dependencies,
+                                           @NotNull Set<PsiClass> visiting) {
+        PsiFile file = psiClass.getContainingFile();
+        dependencies.add(file != null ? file : PsiModificationTracker.MODIFICATION_COUNT);
+        if (!visiting.add(psiClass)) {
+            return FNV_OFFSET; // Inheritance cycle
+        }
+
+        long hash = FNV_OFFSET;
+        hash = mix(hash, psiClass.getQualifiedName());
+        hash = mix(hash, getExplicitSerialVersionUid(psiClass));
+
+        for (PsiField field : psiClass.getFields()) {
+            if (isSerializedField(field)) {
+                hash = mix(hash, field.getName());
+                hash = mix(hash, field.getType().getCanonicalText());
+            }
+        }
+
+        for (PsiClassType type : psiClass.getImplementsListTypes()) {
+            hash = mix(hash, type.getCanonicalText());
+        }
+        for (PsiClassType type : psiClass.getExtendsListTypes()) {
+            hash = mix(hash, type.getCanonicalText());
+        }
+
+        // The superclass's serialized fields are part of the stream too
+        PsiClass superClass = psiClass.getSuperClass();
+        if (superClass != null && !CommonClassNames.JAVA_LANG_OBJECT.equals(superClass.getQualifiedName())) {
+            hash = mix(hash, computeFingerprint(superClass, dependencies, visiting));
+        }
+        return hash;
+    }
+
+    /**
+     * Fingerprint of the shape a class declares itself (serialVersionUID, serialized fields and
+     * supertypes), taken from the source text alone. Nothing is resolved, so it can be compared
+     * between the current file and a non-physical copy of another revision.
+     */
+    public static long getDeclaredShapeFingerprint(@NotNull PsiClass psiClass) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, psiClass.getName());
+        hash = mix(hash, getWrittenSerialVersionUid(psiClass));
+        for (PsiField field : psiClass.getFields()) {
+            if (isSerializedField(field)) {
+                PsiTypeElement typeElement = field.getTypeElement();
+                hash = mix(hash, field.getName());
+                hash = mix(hash, typeElement != null ? StringUtil.replace(StringUtil.collapseWhiteSpace(typeElement.getText()), " ", "") : null);
+            }
+        }
+        for (PsiReferenceList list : new PsiReferenceList[]{psiClass.getExtendsList(), psiClass.getImplementsList()}) {
+            if (list != null) {
+                for (String name : AutoserializableUtil.getWrittenReferenceNames(list)) {
+                    hash = mix(hash, name);
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Non-static, non-transient instance field - part of the default serialized form.
+     */
+    static boolean isSerializedField(@NotNull PsiField field) {
+        return !(field instanceof PsiEnumConstant)
+                && !field.hasModifierProperty(PsiModifier.STATIC)
+                && !field.hasModifierProperty(PsiModifier.TRANSIENT);
+    }
+
+    /**
+     * Value of an explicitly declared serialVersionUID, or {@code null} if there is none.
+     * Falls back to the initializer text when it is not a compile-time constant.
+     */
+    @Nullable
+    public static String getExplicitSerialVersionUid(@NotNull PsiClass psiClass) {
+        PsiField field = psiClass.findFieldByName("serialVersionUID", false);
+        if (field == null || !field.hasModifierProperty(PsiModifier.STATIC)) {
+            return null;
+        }
+        Object value = field.computeConstantValue();
+        if (value != null) {
+            return value.toString();
+        }
+        PsiExpression initializer = field.getInitializer();
+        return initializer != null ? initializer.getText() : null;
+    }
+
+    /**
+     * Initializer of a declared serialVersionUID as written, or {@code null} if there is none.
+     * Unlike {@link #getExplicitSerialVersionUid} nothing is evaluated, so references such as
+     * {@code Constants.UID} aren't resolved - safe while indexing and on non-physical copies.
+     */
+    @Nullable
+    public static String getWrittenSerialVersionUid(@NotNull PsiClass psiClass) {
+        PsiField field = psiClass.findFieldByName("serialVersionUID", false);
+        if (field == null || !field.hasModifierProperty(PsiModifier.STATIC)) {
+            return null;
+        }
+        PsiExpression initializer = field.getInitializer();
+        return initializer != null ? StringUtil.replace(StringUtil.collapseWhiteSpace(initializer.getText()), " ", "") : null;
+    }
+
+    private static long mix(long hash, @Nullable String value) {
+        if (value == null) {
+            return mix(hash, 0L);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // Separator so that ("ab", "c") and ("a", "bc") hash differently
+        hash ^= 0xFF;
+        return hash * FNV_PRIME;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -1,28 +1,35 @@
 package com.brotech.autoserializablechecker.core;
 
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.startup.StartupActivity;
-import com.intellij.util.messages.MessageBusConnection;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Startup activity that registers the file listener ONLY if real-time monitoring is enabled.
+ * Startup activity that registers the file listener ONLY if real-time monitoring is enabled
+ * (see {@link AutoserializableNotificationService}).
  * Performance optimization: By default, checks only happen on-demand (via Action) or during
  * normal IDE inspections, not on every file change.
  */
 public class AutoserializableStartupActivity implements StartupActivity {
     @Override
     public void runActivity(@NotNull Project project) {
-        AutoserializableSettingsState settings = AutoserializableSettingsState.getInstance();
+        // Warm the verdict cache from the previous session before the first inspection pass
+        ApplicationManager.getApplication().executeOnPooledThread(
+                () -> AutoserializableHierarchy.getInstance(project).preload());
         
-        // Only register file listener if user explicitly enabled real-time notifications
-        if (settings != null && settings.isNotificationsEnabled()) {
-            MessageBusConnection connection = project.getMessageBus().connect();
-            connection.subscribe(
-                    com.intellij.openapi.vfs.VirtualFileManager.VFS_CHANGES,
-                    new AutoserializableFileListener(project)
-            );
-        }
+        // Summarize library jars so hierarchies reaching into them never need decompiled PSI
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            ProgressIndicator indicator = new EmptyProgressIndicator();
+            ProgressManager.getInstance().runProcess(
+                    () -> AutoserializableLibraryClasses.getInstance().prefetch(project, indicator), indicator);
+        });
+        
+        // Only attaches the file listener if user explicitly enabled real-time notifications
+        AutoserializableNotificationService.getInstance(project).updateFromSettings();
         
         // Note: Inspection and Action always work regardless of this setting
     }
@@ -0,0 +1,116 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiImportList;
+import com.intellij.psi.PsiImportStatement;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiReferenceList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Preliminary verdicts while the IDE is indexing, when nothing can be resolved.
+ * A class counts as AutoSerializable if it declares a marker as written (see
+ * {@link AutoserializableUtil#findDeclaredMarkerKind}), or a supertype as written is
+ * AutoSerializable: a class of the same file checked the same way, or a class whose verdict an
+ * earlier session persisted (see {@link AutoserializableVerdictStore}).
+ * Ambiguous short names count as markers, so the verdict may over-report; callers present it as
+ * preliminary and replace it with the resolved verdict once indexing finishes.
+ * Performance: only the file's own PSI tree and the in-memory verdict store are read, no
+ * index or stub lookups, so answers are available from the first second after startup.
+ */
+final class AutoserializableSyntacticDetector {
+
+    private AutoserializableSyntacticDetector() {
+    }
+
+    static boolean isLikelyAutoserializable(@NotNull PsiClass psiClass) {
+        return isLikelyAutoserializable(psiClass, new HashSet<>());
+    }
+
+    private static boolean isLikelyAutoserializable(@NotNull PsiClass psiClass, @NotNull Set<PsiClass> visiting) {
+        if (!visiting.add(psiClass)) {
+            return false; // Inheritance cycle
+        }
+        if (AutoserializableUtil.findDeclaredMarkerKind(psiClass) != null) {
+            return true;
+        }
+        PsiFile file = psiClass.getContainingFile();
+        PsiJavaFile javaFile = file instanceof PsiJavaFile ? (PsiJavaFile) file : null;
+        AutoserializableHierarchy hierarchy = AutoserializableHierarchy.getInstance(psiClass.getProject());
+        for (PsiReferenceList list : new PsiReferenceList[]{psiClass.getExtendsList(), psiClass.getImplementsList()}) {
+            if (list == null) {
+                continue;
+            }
+            for (String written : AutoserializableUtil.getWrittenReferenceNames(list)) {
+                PsiClass local = javaFile != null ? findClassNamed(javaFile.getClasses(), written) : null;
+                if (local != null) {
+                    if (isLikelyAutoserializable(local, visiting)) {
+                        return true;
+                    }
+                    continue;
+                }
+                for (String candidate : getCandidateNames(written, javaFile)) {
+                    if (Boolean.TRUE.equals(hierarchy.getStoredVerdict(candidate))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Qualified names a written type name may stand for, from the file's package and imports.
+     */
+    @NotNull
+    private static List<String> getCandidateNames(@NotNull String written, @Nullable PsiJavaFile javaFile) {
+        List<String> candidates = new ArrayList<>();
+        candidates.add(written);
+        if (javaFile == null || written.indexOf('.') >= 0) {
+            return candidates;
+        }
+        PsiImportList importList = javaFile.getImportList();
+        if (importList != null) {
+            for (PsiImportStatement importStatement : importList.getImportStatements()) {
+                String imported = importStatement.getQualifiedName();
+                if (imported == null) {
+                    continue;
+                }
+                if (!importStatement.isOnDemand()) {
+                    if (written.equals(StringUtil.getShortName(imported))) {
+                        candidates.clear(); // A single-type import decides
+                        candidates.add(imported);
+                        return candidates;
+                    }
+                } else {
+                    candidates.add(imported + '.' + written);
+                }
+            }
+        }
+        String packageName = javaFile.getPackageName();
+        candidates.add(packageName.isEmpty() ? written : packageName + '.' + written);
+        return candidates;
+    }
+
+    @Nullable
+    private static PsiClass findClassNamed(@NotNull PsiClass[] classes, @NotNull String name) {
+        for (PsiClass psiClass : classes) {
+            if (name.equals(psiClass.getName())) {
+                return psiClass;
+            }
+            PsiClass inner = findClassNamed(psiClass.getInnerClasses(), name);
+            if (inner != null) {
+                return inner;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,160 @@
+package com.brotech.autoserializablechecker.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Single-pass multi-pattern text search (Horspool over the shortest pattern length).
+ * Performance: tables are built once, {@link #containsAny} reads the document's chars or the
+ * file's raw bytes in place and allocates nothing per call. Typical skip distance is the
+ * pattern length, so most characters are never looked at.
+ */
+public final class AutoserializableTextMatcher {
+
+    private final char[][] charPatterns;
+    private final byte[][] bytePatterns;
+    private final int window;
+    private final int longestBytePattern;
+    private final int[] charShift = new int[128];
+    private final int nonAsciiCharShift;
+    private final int[] byteShift = new int[256];
+
+    public AutoserializableTextMatcher(@NotNull Collection<String> patterns) {
+        Set<String> unique = new LinkedHashSet<>(patterns);
+        unique.remove("");
+        if (unique.isEmpty()) {
+            throw new IllegalArgumentException("At least one non-empty pattern is required");
+        }
+
+        charPatterns = new char[unique.size()][];
+        bytePatterns = new byte[unique.size()][];
+        int shortest = Integer.MAX_VALUE;
+        int longest = 0;
+        int i = 0;
+        for (String pattern : unique) {
+            charPatterns[i] = pattern.toCharArray();
+            bytePatterns[i] = pattern.getBytes(StandardCharsets.UTF_8);
+            shortest = Math.min(shortest, Math.min(charPatterns[i].length, bytePatterns[i].length));
+            longest = Math.max(longest, bytePatterns[i].length);
+            i++;
+        }
+        window = shortest;
+        longestBytePattern = longest;
+
+        // Horspool shifts computed over the first `window` units of every pattern
+        Arrays.fill(charShift, window);
+        Arrays.fill(byteShift, window);
+        int nonAscii = window;
+        for (int p = 0; p < charPatterns.length; p++) {
+            for (int j = 0; j < window - 1; j++) {
+                int shift = window - 1 - j;
+                char c = charPatterns[p][j];
+                if (c < 128) {
+                    charShift[c] = Math.min(charShift[c], shift);
+                } else {
+                    nonAscii = Math.min(nonAscii, shift);
+                }
+                int b = bytePatterns[p][j] & 0xFF;
+                byteShift[b] = Math.min(byteShift[b], shift);
+            }
+        }
+        nonAsciiCharShift = nonAscii;
+    }
+
+    /**
+     * Searches document or PSI text in place, e.g. {@code Document.getImmutableCharSequence()}.
+     */
+    public boolean containsAny(@NotNull CharSequence text) {
+        int length = text.length();
+        int last = window - 1;
+        for (int pos = 0; pos + last < length; ) {
+            char c = text.charAt(pos + last);
+            for (char[] pattern : charPatterns) {
+                if (pattern[last] == c && matchesAt(text, pos, pattern)) {
+                    return true;
+                }
+            }
+            pos += c < 128 ? charShift[c] : nonAsciiCharShift;
+        }
+        return false;
+    }
+
+    /**
+     * Searches raw (UTF-8 or other ASCII-compatible) file bytes without decoding them.
+     */
+    public boolean containsAny(@NotNull byte[] content) {
+        return containsAny(content, 0, content.length);
+    }
+
+    /**
+     * Searches {@code content[from, to)} only, e.g. the constant pool of a class file.
+     */
+    public boolean containsAny(@NotNull byte[] content, int from, int to) {
+        int last = window - 1;
+        for (int pos = from; pos + last < to; ) {
+            byte b = content[pos + last];
+            for (byte[] pattern : bytePatterns) {
+                if (pattern[last] == b && matchesAt(content, pos, to, pattern)) {
+                    return true;
+                }
+            }
+            pos += byteShift[b & 0xFF];
+        }
+        return false;
+    }
+
+    /**
+     * Searches a stream chunk by chunk through the caller's (reusable) buffer, so a file is
+     * never read into memory whole. The last bytes of each chunk are carried over to the next
+     * one, so a match across a chunk boundary is still found.
+     */
+    public boolean containsAny(@NotNull InputStream in, @NotNull byte[] buffer) throws IOException {
+        int overlap = longestBytePattern - 1;
+        byte[] chunk = buffer.length > overlap ? buffer : new byte[2 * overlap + 1];
+        int filled = 0;
+        int read;
+        while ((read = in.read(chunk, filled, chunk.length - filled)) != -1) {
+            filled += read;
+            if (filled < chunk.length) {
+                continue; // Search full chunks only
+            }
+            if (containsAny(chunk, 0, filled)) {
+                return true;
+            }
+            System.arraycopy(chunk, filled - overlap, chunk, 0, overlap);
+            filled = overlap;
+        }
+        return containsAny(chunk, 0, filled);
+    }
+
+    private static boolean matchesAt(CharSequence text, int pos, char[] pattern) {
+        if (pos + pattern.length > text.length()) {
+            return false;
+        }
+        for (int j = 0; j < pattern.length; j++) {
+            if (text.charAt(pos + j) != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAt(byte[] content, int pos, int to, byte[] pattern) {
+        if (pos + pattern.length > to) {
+            return false;
+        }
+        for (int j = 0; j < pattern.length; j++) {
+            if (content[pos + j] != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,40 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.content.ContentManagerEvent;
+import com.intellij.ui.content.ContentManagerListener;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Creates the AutoSerializable tool window: scan results as they stream in, and a
+ * diagnostics tab with the plugin's runtime metrics.
+ */
+public class AutoserializableToolWindowFactory implements ToolWindowFactory, DumbAware {
+
+    public static final String TOOL_WINDOW_ID = "AutoSerializable";
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        AutoserializableResultsPanel panel = new AutoserializableResultsPanel(project);
+        Content content = ContentFactory.getInstance().createContent(panel, "Results", false);
+        toolWindow.getContentManager().addContent(content);
+
+        AutoserializableDiagnosticsPanel diagnostics = new AutoserializableDiagnosticsPanel(project);
+        toolWindow.getContentManager().addContent(
+                ContentFactory.getInstance().createContent(diagnostics, "Diagnostics", false));
+        // Fresh snapshot whenever the tab is opened
+        toolWindow.getContentManager().addContentManagerListener(new ContentManagerListener() {
+            @Override
+            public void selectionChanged(@NotNull ContentManagerEvent event) {
+                if (event.getContent().getComponent() == diagnostics && event.getOperation() == ContentManagerEvent.ContentOperation.add) {
+                    diagnostics.refresh();
+                }
+            }
+        });
+    }
+}
@@ -1,11 +1,26 @@
 package com.brotech.autoserializablechecker.core;
 
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
+import com.intellij.psi.impl.java.stubs.PsiClassReferenceListStub;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -14,100 +29,335 @@ import java.util.Set;
  */
 public class AutoserializableUtil {
     
-    private static final Set<String> AUTOSERIALIZABLE_ANNOTATIONS = Set.of(
-            "AutoSerializable",
-            "com.brotech.AutoSerializable",
-            "com.yourcompany.AutoSerializable"
-    );
+    // Compiled from the configured markers; replaced as a whole when they change
+    private static volatile AutoserializableMarkerMatcher markerMatcher;
     
-    private static final int MAX_SUPERCLASS_DEPTH = 10; // Prevent infinite loops
+    // Read buffer of the file prefilter, reused by each pooled thread
+    private static final ThreadLocal<byte[]> READ_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
     
     /**
-     * Checks if a class uses @AutoSerializable annotation or interface.
-     * Results are cached and invalidated when PSI changes.
+     * The configured markers, compiled once (see {@link AutoserializableMarkerMatcher}).
      */
-    public static boolean isAutoserializable(@NotNull PsiClass psiClass) {
-        return CachedValuesManager.getCachedValue(psiClass, () -> 
-            CachedValueProvider.Result.create(
-                computeIsAutoserializable(psiClass, 0),
-                PsiModificationTracker.MODIFICATION_COUNT
-            )
-        );
+    @NotNull
+    public static AutoserializableMarkerMatcher getMarkerMatcher() {
+        AutoserializableMarkerMatcher matcher = markerMatcher;
+        if (matcher == null) {
+            matcher = new AutoserializableMarkerMatcher(getConfiguredMarkers());
+            markerMatcher = matcher;
+        }
+        return matcher;
     }
     
-    private static boolean computeIsAutoserializable(@NotNull PsiClass psiClass, int depth) {
-        // Prevent stack overflow on circular dependencies
-        if (depth > MAX_SUPERCLASS_DEPTH) {
-            return false;
+    /**
+     * Recompiles the matcher after the marker settings changed. If the set really differs,
+     * the declaration index is rebuilt and every open project drops its verdicts and re-highlights.
+     */
+    public static void updateMarkersFromSettings() {
+        AutoserializableMarkerMatcher updated = new AutoserializableMarkerMatcher(getConfiguredMarkers());
+        AutoserializableMarkerMatcher previous = markerMatcher;
+        if (previous != null && previous.getMarkers().equals(updated.getMarkers())) {
+            return;
         }
+        markerMatcher = updated;
         
-        // Check annotations
-        if (hasAutoserializableAnnotation(psiClass)) {
-            return true;
+        FileBasedIndex.getInstance().requestRebuild(AutoserializableIndex.NAME);
+        for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+            if (!project.isDisposed()) {
+                AutoserializableHierarchy.getInstance(project).markersChanged();
+                DaemonCodeAnalyzer.getInstance(project).restart();
+            }
         }
+    }
+    
+    /**
+     * Settings were reloaded from storage. Nothing to do before the matcher was first compiled,
+     * as it will be compiled from the reloaded markers.
+     */
+    static void markersReloaded() {
+        if (markerMatcher != null) {
+            ApplicationManager.getApplication().invokeLater(AutoserializableUtil::updateMarkersFromSettings);
+        }
+    }
+    
+    @NotNull
+    private static List<String> getConfiguredMarkers() {
+        AutoserializableSettingsState settings = AutoserializableSettingsState.getInstance();
+        return settings != null ? settings.getMarkers() : AutoserializableSettingsState.DEFAULT_MARKERS;
+    }
+    
+    /**
+     * Checks if a class uses @AutoSerializable annotation or interface, directly or through
+     * any superclass or super-interface.
+     * Results are cached per class and invalidated only when something in the class's own
+     * hierarchy changes (see {@link AutoserializableHierarchy}), so edits elsewhere keep the cache warm.
+     */
+    public static boolean isAutoserializable(@NotNull PsiClass psiClass) {
+        AutoserializableMetrics metrics = AutoserializableMetrics.getInstance();
+        metrics.increment(AutoserializableMetrics.Counter.DETECTION_CALLS);
+        return CachedValuesManager.getCachedValue(psiClass, () -> {
+            metrics.increment(AutoserializableMetrics.Counter.DETECTION_CACHE_MISSES);
+            Set<Object> dependencies = new LinkedHashSet<>();
+            boolean result = AutoserializableHierarchy.getInstance(psiClass.getProject())
+                    .isAutoserializable(psiClass, dependencies);
+            return CachedValueProvider.Result.create(result, dependencies.toArray());
+        });
+    }
+    
+    /**
+     * Marker declared on the class itself: annotation, implemented interface, or for
+     * interfaces an extended one. Supertypes are not consulted.
+     * Decided from the names as written (stub data) and the file's imports; a reference is only
+     * resolved when its short name is a marker's but the imports can't tell which class it is.
+     * Other files' classes are usually stub-backed; reading them this way doesn't load their AST.
+     */
+    static boolean hasDirectMarker(@NotNull PsiClass psiClass) {
+        // Compiled classes already carry fully qualified names
+        PsiJavaFile sourceFile = psiClass instanceof PsiCompiledElement ? null : getJavaFile(psiClass);
         
-        // Check interfaces
-        if (implementsAutoserializableInterface(psiClass)) {
-            return true;
+        PsiModifierList modifierList = psiClass.getModifierList();
+        if (modifierList != null) {
+            for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+                PsiJavaCodeReferenceElement ref = annotation.getNameReferenceElement();
+                if (ref != null && isMarkerReference(ref, sourceFile)) {
+                    return true;
+                }
+            }
         }
         
-        // Check superclass (with depth limit)
-        PsiClass superClass = psiClass.getSuperClass();
-        if (superClass != null) {
-            String qualifiedName = superClass.getQualifiedName();
-            if (qualifiedName != null && !qualifiedName.equals("java.lang.Object")) {
-                return computeIsAutoserializable(superClass, depth + 1);
+        // Interfaces declare their super-interfaces in the extends list
+        PsiReferenceList implementsList = psiClass.isInterface() ? psiClass.getExtendsList() : psiClass.getImplementsList();
+        if (implementsList != null) {
+            String[] names = getWrittenReferenceNames(implementsList);
+            for (int i = 0; i < names.length; i++) {
+                MarkerMatch match = matchWrittenName(names[i], sourceFile);
+                if (match == MarkerMatch.YES || (match == MarkerMatch.AMBIGUOUS && resolvesToMarker(implementsList, i))) {
+                    return true;
+                }
             }
         }
         
         return false;
     }
     
-    private static boolean hasAutoserializableAnnotation(@NotNull PsiClass psiClass) {
-        PsiModifierList modifierList = psiClass.getModifierList();
-        if (modifierList == null) {
-            return false;
+    private static boolean resolvesToMarker(@NotNull PsiReferenceList list, int index) {
+        AutoserializableMetrics.getInstance().increment(AutoserializableMetrics.Counter.DETECTION_RESOLVES);
+        // Types built from the stub resolve in the file's context without loading its AST
+        PsiClassType[] types = list.getReferencedTypes();
+        PsiClass resolved = index < types.length ? types[index].resolve() : null;
+        String qualifiedName = resolved != null ? resolved.getQualifiedName() : null;
+        return qualifiedName != null && isMarkerName(qualifiedName);
+    }
+    
+    private static boolean isMarkerReference(@NotNull PsiJavaCodeReferenceElement ref, @Nullable PsiJavaFile sourceFile) {
+        MarkerMatch match = matchWrittenName(getUnresolvedReferenceText(ref), sourceFile);
+        if (match != MarkerMatch.AMBIGUOUS) {
+            return match == MarkerMatch.YES;
+        }
+        AutoserializableMetrics.getInstance().increment(AutoserializableMetrics.Counter.DETECTION_RESOLVES);
+        String qualifiedName = ref.getQualifiedName();
+        return qualifiedName != null && isMarkerName(qualifiedName);
+    }
+    
+    @Nullable
+    private static PsiJavaFile getJavaFile(@NotNull PsiClass psiClass) {
+        PsiFile file = psiClass.getContainingFile();
+        return file instanceof PsiJavaFile ? (PsiJavaFile) file : null;
+    }
+    
+    enum MarkerMatch {
+        YES,
+        NO,
+        // Short name matches a marker's, but only resolving can tell which class it is
+        AMBIGUOUS
+    }
+    
+    /**
+     * Matches a type name as written in source against the markers without resolving.
+     * {@code sourceFile} supplies package and imports for short names; {@code null} means the
+     * name is already fully qualified (compiled classes).
+     */
+    @NotNull
+    static MarkerMatch matchWrittenName(@NotNull String written, @Nullable PsiJavaFile sourceFile) {
+        if (isMarkerName(written)) {
+            return MarkerMatch.YES;
+        }
+        String shortName = StringUtil.getShortName(written);
+        Set<String> candidates = getMarkerMatcher().getQualifiedMarkers(shortName);
+        if (candidates == null) {
+            return MarkerMatch.NO; // The common case: the name can't be any marker, whatever it resolves to
+        }
+        if (sourceFile == null) {
+            return MarkerMatch.NO; // Fully qualified and not a marker
+        }
+        if (written.indexOf('.') >= 0) {
+            return MarkerMatch.AMBIGUOUS; // e.g. Outer.AutoSerializable - depends on what Outer is
         }
         
-        for (String annotationName : AUTOSERIALIZABLE_ANNOTATIONS) {
-            if (modifierList.findAnnotation(annotationName) != null) {
+        // A single-type import decides unless a class in this file declares the same name
+        PsiImportList importList = sourceFile.getImportList();
+        if (importList != null && !declaresClassNamed(sourceFile.getClasses(), shortName)) {
+            for (PsiImportStatement importStatement : importList.getImportStatements()) {
+                String imported = importStatement.isOnDemand() ? null : importStatement.getQualifiedName();
+                if (imported != null && shortName.equals(StringUtil.getShortName(imported))) {
+                    return candidates.contains(imported) ? MarkerMatch.YES : MarkerMatch.NO;
+                }
+            }
+        }
+        // Same package, on-demand imports and nested classes need a lookup
+        return MarkerMatch.AMBIGUOUS;
+    }
+    
+    private static boolean declaresClassNamed(@NotNull PsiClass[] classes, @NotNull String name) {
+        for (PsiClass psiClass : classes) {
+            if (name.equals(psiClass.getName()) || declaresClassNamed(psiClass.getInnerClasses(), name)) {
                 return true;
             }
         }
-        
         return false;
     }
     
-    private static boolean implementsAutoserializableInterface(@NotNull PsiClass psiClass) {
-        PsiReferenceList implementsList = psiClass.getImplementsList();
-        if (implementsList == null) {
-            return false;
+    /**
+     * Checks a (possibly unqualified) type name against the marker set.
+     * Uses exact matching or a proper suffix match instead of contains() for better precision.
+     */
+    static boolean isMarkerName(@NotNull String name) {
+        return getMarkerMatcher().matches(name);
+    }
+    
+    /**
+     * Syntactic marker check used while indexing: looks only at the reference text
+     * of annotations and implemented interfaces, never resolves anything.
+     * Ambiguous short names count as declared - the index may over-approximate, never miss.
+     */
+    @Nullable
+    static AutoserializableDeclaration.MarkerKind findDeclaredMarkerKind(@NotNull PsiClass psiClass) {
+        PsiJavaFile sourceFile = getJavaFile(psiClass);
+        PsiModifierList modifierList = psiClass.getModifierList();
+        if (modifierList != null) {
+            for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+                PsiJavaCodeReferenceElement ref = annotation.getNameReferenceElement();
+                if (ref != null && matchWrittenName(getUnresolvedReferenceText(ref), sourceFile) != MarkerMatch.NO) {
+                    return AutoserializableDeclaration.MarkerKind.ANNOTATION;
+                }
+            }
         }
         
-        for (PsiJavaCodeReferenceElement ref : implementsList.getReferenceElements()) {
-            String qualifiedName = ref.getQualifiedName();
-            if (qualifiedName != null) {
-                // Use exact matching instead of contains() for better precision
-                for (String autoserializableName : AUTOSERIALIZABLE_ANNOTATIONS) {
-                    if (qualifiedName.equals(autoserializableName) || 
-                        qualifiedName.endsWith("." + autoserializableName)) {
-                        return true;
-                    }
+        PsiReferenceList implementsList = psiClass.isInterface() ? psiClass.getExtendsList() : psiClass.getImplementsList();
+        if (implementsList != null) {
+            for (String name : getWrittenReferenceNames(implementsList)) {
+                if (matchWrittenName(name, sourceFile) != MarkerMatch.NO) {
+                    return AutoserializableDeclaration.MarkerKind.INTERFACE;
                 }
             }
         }
         
-        return false;
+        return null;
+    }
+    
+    /**
+     * Returns a reference as written in the source, without type arguments or whitespace.
+     * Unlike getQualifiedName() this never triggers resolve.
+     */
+    @NotNull
+    static String getUnresolvedReferenceText(@NotNull PsiJavaCodeReferenceElement ref) {
+        return stripTypeArguments(ref.getText());
+    }
+    
+    /**
+     * Names in an extends/implements list as written, without type arguments. Taken from the
+     * list's stub while the file's AST isn't loaded, so nothing is parsed or resolved.
+     */
+    @NotNull
+    static String[] getWrittenReferenceNames(@NotNull PsiReferenceList list) {
+        Object stub = list instanceof StubBasedPsiElement ? ((StubBasedPsiElement<?>) list).getStub() : null;
+        if (stub instanceof PsiClassReferenceListStub) {
+            String[] names = ((PsiClassReferenceListStub) stub).getReferencedNames();
+            String[] written = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                written[i] = stripTypeArguments(names[i]);
+            }
+            return written;
+        }
+        PsiJavaCodeReferenceElement[] refs = list.getReferenceElements();
+        String[] written = new String[refs.length];
+        for (int i = 0; i < refs.length; i++) {
+            written[i] = getUnresolvedReferenceText(refs[i]);
+        }
+        return written;
+    }
+    
+    @NotNull
+    private static String stripTypeArguments(@NotNull String text) {
+        int typeArgsStart = text.indexOf('<');
+        if (typeArgsStart >= 0) {
+            text = text.substring(0, typeArgsStart);
+        }
+        return StringUtil.trimWhitespace(text);
+    }
+    
+    /**
+     * Cheap candidate filter using a file's indexed declarations: a class can only be
+     * AutoSerializable if it declares a marker itself or inherits one through a supertype.
+     */
+    public static boolean couldBeAutoserializable(@NotNull PsiClass psiClass,
+                                                  @NotNull Map<String, AutoserializableDeclaration> declarations) {
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName != null && declarations.containsKey(qualifiedName)) {
+            return true;
+        }
+        return psiClass.getExtendsListTypes().length > 0 || psiClass.getImplementsListTypes().length > 0;
     }
     
     /**
      * Quick check if a file might contain AutoSerializable classes.
-     * This is a fast pre-check before doing full PSI analysis.
+     * Answered from {@link AutoserializableIndex} when possible; falls back to an in-place
+     * text search only when the index is unavailable (dumb mode or files outside the project).
      */
     public static boolean mightContainAutoserializable(@NotNull PsiJavaFile javaFile) {
-        // Quick text-based pre-check (much faster than PSI parsing)
-        String text = javaFile.getText();
-        return text.contains("AutoSerializable") || text.contains("@AutoSerializable");
+        Map<String, AutoserializableDeclaration> declarations = AutoserializableIndex.getFileDeclarations(javaFile);
+        if (declarations != null) {
+            return countPrefilter(!declarations.isEmpty());
+        }
+        
+        // Searches the view provider's chars directly - no getText() copy
+        return countPrefilter(mightContainMarkerText(javaFile.getViewProvider().getContents()));
+    }
+    
+    /**
+     * Same as {@link #mightContainAutoserializable(PsiJavaFile)} for callers that have not loaded PSI.
+     * Prefers the open document's chars, otherwise streams the file's raw bytes through a reused
+     * per-thread buffer without decoding them.
+     */
+    public static boolean mightContainAutoserializable(@NotNull Project project, @NotNull VirtualFile file) {
+        Map<String, AutoserializableDeclaration> declarations = AutoserializableIndex.getFileDeclarations(project, file);
+        if (declarations != null) {
+            return countPrefilter(!declarations.isEmpty());
+        }
+        
+        Document document = FileDocumentManager.getInstance().getCachedDocument(file);
+        if (document != null) {
+            return countPrefilter(mightContainMarkerText(document.getImmutableCharSequence()));
+        }
+        try (InputStream in = file.getInputStream()) {
+            return countPrefilter(getMarkerMatcher().getTextMatcher().containsAny(in, READ_BUFFER.get()));
+        } catch (IOException e) {
+            return countPrefilter(true); // Can't tell - let the caller do the full check
+        }
+    }
+    
+    private static boolean countPrefilter(boolean mightContain) {
+        AutoserializableMetrics metrics = AutoserializableMetrics.getInstance();
+        metrics.increment(AutoserializableMetrics.Counter.PREFILTER_CHECKS);
+        if (!mightContain) {
+            metrics.increment(AutoserializableMetrics.Counter.PREFILTER_SKIPS);
+        }
+        return mightContain;
+    }
+    
+    /**
+     * Single-pass search for any marker's short name in the given text.
+     */
+    public static boolean mightContainMarkerText(@NotNull CharSequence text) {
+        return getMarkerMatcher().getTextMatcher().containsAny(text);
     }
 }
-
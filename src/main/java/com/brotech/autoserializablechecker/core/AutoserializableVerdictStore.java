@@ -0,0 +1,230 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWithId;
+import com.intellij.openapi.vfs.newvfs.persistent.PersistentFS;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk copy of the hierarchy verdicts so the first inspection pass after a restart doesn't
+ * have to re-resolve every hierarchy.
+ * Performance improvements:
+ * - Compact binary format: a shared name table, then varint-encoded entries
+ * - Loaded lazily on first use (or ahead of time from the startup activity), off the EDT
+ * - Entries are keyed by VFS file id and validated against the file's timestamp and length,
+ *   so files changed while the IDE was closed are simply recomputed
+ * - Only source classes are stored; verdicts that depend on a library class are recomputed
+ *   after a restart, as the library may have been upgraded meanwhile
+ */
+final class AutoserializableVerdictStore {
+
+    private static final Logger LOG = Logger.getInstance(AutoserializableVerdictStore.class);
+
+    private static final int MAGIC = 0x41534843; // "ASHC"
+    private static final int FORMAT_VERSION = 3; // 3: no library class entries
+
+    /**
+     * One persisted verdict: the declaring file's stamp, whether the marker is declared on the
+     * type itself, and the supertypes that were consulted to inherit it.
+     */
+    static final class StoredVerdict {
+        final int fileId;
+        final long timeStamp;
+        final long length;
+        final boolean direct;
+        final boolean verdict;
+        final String[] supertypes;
+
+        StoredVerdict(int fileId, long timeStamp, long length, boolean direct, boolean verdict, String[] supertypes) {
+            this.fileId = fileId;
+            this.timeStamp = timeStamp;
+            this.length = length;
+            this.direct = direct;
+            this.verdict = verdict;
+            this.supertypes = supertypes;
+        }
+
+        /**
+         * The declaring file if it still exists unchanged since the verdict was stored.
+         */
+        @Nullable
+        VirtualFile findUnchangedFile() {
+            VirtualFile file = PersistentFS.getInstance().findFileById(fileId);
+            if (file == null || !file.isValid() || file.getTimeStamp() != timeStamp || file.getLength() != length) {
+                return null;
+            }
+            return file;
+        }
+    }
+
+    private final Path storeFile;
+    // Null until loaded; entries are removed once adopted or invalidated in this session
+    private volatile Map<String, StoredVerdict> entries;
+
+    AutoserializableVerdictStore(@NotNull Project project) {
+        storeFile = PathManager.getSystemDir()
+                .resolve("autoserializable")
+                .resolve(project.getLocationHash())
+                .resolve("verdicts.bin");
+    }
+
+    @Nullable
+    StoredVerdict get(@NotNull String qualifiedName) {
+        return getEntries().get(qualifiedName);
+    }
+
+    void remove(@NotNull String qualifiedName) {
+        Map<String, StoredVerdict> loaded = entries;
+        if (loaded != null) {
+            loaded.remove(qualifiedName);
+        }
+    }
+
+    /**
+     * Forgets all persisted verdicts, e.g. because the markers changed.
+     */
+    synchronized void clear() {
+        entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Loads the store if it hasn't been loaded yet. Safe to call from any background thread.
+     */
+    void preload() {
+        getEntries();
+    }
+
+    @NotNull
+    private Map<String, StoredVerdict> getEntries() {
+        Map<String, StoredVerdict> loaded = entries;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = entries;
+                if (loaded == null) {
+                    loaded = load();
+                    entries = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @NotNull
+    private Map<String, StoredVerdict> load() {
+        Map<String, StoredVerdict> result = new ConcurrentHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storeFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return result; // Older format - start cold
+            }
+            if (in.readInt() != AutoserializableUtil.getMarkerMatcher().getMarkersHash()) {
+                return result; // Computed with different markers
+            }
+            String[] names = new String[DataInputOutputUtil.readINT(in)];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = IOUtil.readUTF(in);
+            }
+            int count = DataInputOutputUtil.readINT(in);
+            for (int i = 0; i < count; i++) {
+                String name = names[DataInputOutputUtil.readINT(in)];
+                int fileId = DataInputOutputUtil.readINT(in);
+                long timeStamp = in.readLong();
+                long length = DataInputOutputUtil.readLONG(in);
+                int flags = in.readByte();
+                String[] supertypes = new String[DataInputOutputUtil.readINT(in)];
+                for (int j = 0; j < supertypes.length; j++) {
+                    supertypes[j] = names[DataInputOutputUtil.readINT(in)];
+                }
+                result.put(name, new StoredVerdict(fileId, timeStamp, length, (flags & 1) != 0, (flags & 2) != 0, supertypes));
+            }
+        } catch (NoSuchFileException e) {
+            // First start for this project
+        } catch (IOException | RuntimeException e) {
+            LOG.info("Discarding unreadable AutoSerializable verdict store " + storeFile, e);
+            result.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Writes the given verdicts plus any loaded entries that weren't used this session. Written to a temporary file first so a crash
+     * can't leave a truncated store behind.
+     */
+    void save(@NotNull Map<String, StoredVerdict> current) {
+        // Entries from the previous session that were never touched are still valid
+        Map<String, StoredVerdict> verdicts = new HashMap<>(getEntries());
+        verdicts.putAll(current);
+
+        Map<String, Integer> nameIds = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, StoredVerdict> entry : verdicts.entrySet()) {
+            nameIds.computeIfAbsent(entry.getKey(), key -> { names.add(key); return names.size() - 1; });
+            for (String supertype : entry.getValue().supertypes) {
+                nameIds.computeIfAbsent(supertype, key -> { names.add(key); return names.size() - 1; });
+            }
+        }
+
+        try {
+            Files.createDirectories(storeFile.getParent());
+            Path tempFile = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(AutoserializableUtil.getMarkerMatcher().getMarkersHash());
+                DataInputOutputUtil.writeINT(out, names.size());
+                for (String name : names) {
+                    IOUtil.writeUTF(out, name);
+                }
+                DataInputOutputUtil.writeINT(out, verdicts.size());
+                for (Map.Entry<String, StoredVerdict> entry : verdicts.entrySet()) {
+                    StoredVerdict stored = entry.getValue();
+                    DataInputOutputUtil.writeINT(out, nameIds.get(entry.getKey()));
+                    DataInputOutputUtil.writeINT(out, stored.fileId);
+                    out.writeLong(stored.timeStamp);
+                    DataInputOutputUtil.writeLONG(out, stored.length);
+                    out.writeByte((stored.direct ? 1 : 0) | (stored.verdict ? 2 : 0));
+                    DataInputOutputUtil.writeINT(out, stored.supertypes.length);
+                    for (String supertype : stored.supertypes) {
+                        DataInputOutputUtil.writeINT(out, nameIds.get(supertype));
+                    }
+                }
+            }
+            Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.info("Could not write AutoSerializable verdict store " + storeFile, e);
+        }
+    }
+
+    /**
+     * Builds a persistable entry for a type declared in {@code file}, or {@code null} if the file
+     * has no stable VFS id.
+     */
+    @Nullable
+    static StoredVerdict create(@NotNull VirtualFile file, boolean direct, boolean verdict, @NotNull String[] supertypes) {
+        if (!(file instanceof VirtualFileWithId) || !file.isValid()) {
+            return null;
+        }
+        return new StoredVerdict(((VirtualFileWithId) file).getId(), file.getTimeStamp(), file.getLength(),
+                direct, verdict, supertypes);
+    }
+}
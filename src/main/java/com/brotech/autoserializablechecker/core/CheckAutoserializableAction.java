@@ -1,20 +1,50 @@
 package com.brotech.autoserializablechecker.core;
 
+import com.intellij.ide.highlighter.JavaFileType;
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationGroupManager;
 import com.intellij.notification.NotificationType;
 import com.intellij.notification.Notifications;
-import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileTypes.FileTypeRegistry;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
-public class CheckAutoserializableAction extends AnAction {
+/**
+ * Reports the AutoSerializable classes in the current file or in the files, packages and
+ * directories selected in the project view.
+ * Performance improvements:
+ * - Runs as a cancellable background task; the EDT only reads the selection
+ * - Each file is analyzed in its own non-blocking read action that restarts on PSI changes
+ *   instead of delaying them, and only that file is redone
+ * - {@link #update} looks at the selection's file types only, never at PSI
+ * - Results are aggregated into one notification however large the selection
+ * - Each class's serialVersionUID is shown, computed from PSI when not declared (see
+ *   {@link AutoserializableSerialVersionUid})
+ * - Works while indexing: results are then preliminary (see {@link AutoserializableSyntacticDetector})
+ *   and the check re-runs by itself when indexing finishes, replacing the preliminary notification
+ */
+public class CheckAutoserializableAction extends DumbAwareAction {
+
+    // Classes listed in the notification; the rest are summarized
+    private static final int MAX_LISTED_CLASSES = 20;
 
     @Override
     public void actionPerformed(@NotNull AnActionEvent e) {
@@ -23,93 +53,262 @@ public class CheckAutoserializableAction extends AnAction {
             return;
         }
 
-        PsiFile psiFile = e.getData(CommonDataKeys.PSI_FILE);
-
-        if (psiFile == null || !(psiFile instanceof PsiJavaFile)) {
+        List<VirtualFile> selection = getSelection(e);
+        if (selection.isEmpty()) {
             showNotification(project, "Not a Java File", 
-                "Please open a Java file to analyze for @AutoSerializable usage.", 
+                "Please open a Java file or select Java files or directories to analyze for @AutoSerializable usage.", 
                 NotificationType.WARNING);
             return;
         }
 
-        // Perform PSI operations in a read action to avoid index mismatch
-        com.intellij.openapi.application.ApplicationManager.getApplication().runReadAction(() -> {
-            try {
-                PsiJavaFile javaFile = (PsiJavaFile) psiFile;
-                
-                // Fast pre-check before expensive PSI analysis
-                if (!AutoserializableUtil.mightContainAutoserializable(javaFile)) {
-                    showNotification(project, "✓ Analysis Complete", 
-                        String.format("File <b>%s</b> does not contain any @AutoSerializable classes.", 
-                            psiFile.getName()),
-                        NotificationType.INFORMATION);
-                    return;
-                }
-                
-                List<String> autoserializableClasses = new ArrayList<>();
-                
-                // Analyze all classes in the file
-                for (PsiClass psiClass : javaFile.getClasses()) {
-                    if (isAutoserializable(psiClass)) {
-                        String className = psiClass.getName();
-                        if (className != null) {
-                            autoserializableClasses.add(className);
-                        }
+        check(project, selection, null);
+    }
+
+    /**
+     * Checks the selection in the background. {@code preliminary} is the notification of an
+     * earlier check made while indexing, which the new results replace.
+     */
+    private static void check(@NotNull Project project, @NotNull List<VirtualFile> selection, @Nullable Notification preliminary) {
+        long start = System.nanoTime();
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Checking for @AutoSerializable", true) {
+            private final List<FileResult> results = new ArrayList<>();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                List<VirtualFile> files = ReadAction.nonBlocking(() -> collectJavaFiles(project, selection))
+                        .expireWith(project)
+                        .wrapProgress(indicator)
+                        .executeSynchronously();
+                for (int i = 0; i < files.size(); i++) {
+                    VirtualFile file = files.get(i);
+                    indicator.setText2(file.getName());
+                    // No inSmartMode: while indexing, the file gets a preliminary verdict instead of waiting
+                    FileResult result = ReadAction.nonBlocking(() -> analyzeFile(project, file))
+                            .expireWith(project)
+                            .wrapProgress(indicator)
+                            .executeSynchronously();
+                    if (result != null) {
+                        results.add(result);
                     }
+                    indicator.setFraction((double) (i + 1) / files.size());
                 }
+            }
 
-                // Show results
-                String fileName = psiFile.getName();
-                if (autoserializableClasses.isEmpty()) {
-                    showNotification(project, "✓ Analysis Complete", 
-                        String.format("File <b>%s</b> does not contain any @AutoSerializable classes.", 
-                            fileName),
-                        NotificationType.INFORMATION);
-                } else {
-                    StringBuilder message = new StringBuilder();
-                    message.append("File <b>").append(fileName).append("</b> contains ")
-                           .append(autoserializableClasses.size()).append(" @AutoSerializable class(es):<br/>");
-                    
-                    for (String className : autoserializableClasses) {
-                        message.append("• <b>").append(className).append("</b><br/>");
+            @Override
+            public void onSuccess() {
+                Notification shown = showResults(project, results);
+                if (preliminary != null) {
+                    preliminary.expire();
+                }
+                for (FileResult result : results) {
+                    if (result.preliminary) {
+                        DumbService.getInstance(project).runWhenSmart(() -> check(project, selection, shown));
+                        break;
                     }
-                    
-                    message.append("<br/>⚠️ Remember to:<br/>")
-                           .append("• Maintain backward compatibility<br/>")
-                           .append("• Update SerialVersionUID if needed<br/>")
-                           .append("• Document all changes");
-                    
-                    showNotification(project, "⚠️ AutoSerializable Classes Found", 
-                        message.toString(), 
-                        NotificationType.WARNING);
                 }
-            } catch (Exception ex) {
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
                 showNotification(project, "❌ Error", 
-                    "An error occurred while analyzing the file: " + ex.getMessage(), 
+                    "An error occurred while analyzing: " + error.getMessage(), 
                     NotificationType.ERROR);
             }
+
+            @Override
+            public void onFinished() {
+                AutoserializableMetrics.getInstance().recordSince(AutoserializableMetrics.Histogram.ACTION_LATENCY, start);
+            }
         });
     }
 
     @Override
     public void update(@NotNull AnActionEvent e) {
-        // Always enable if project is available - we'll handle the check in actionPerformed
-        Project project = e.getProject();
-        e.getPresentation().setEnabled(project != null);
-        e.getPresentation().setVisible(true);
+        // Selection and file types only - deciding per class would mean resolving on every menu open
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && !getSelection(e).isEmpty());
+    }
+
+    @NotNull
+    @Override
+    public ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    /**
+     * Java files and directories selected in the project view, or the file open in the editor.
+     */
+    @NotNull
+    private static List<VirtualFile> getSelection(@NotNull AnActionEvent e) {
+        List<VirtualFile> selection = new ArrayList<>();
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        if (files == null || files.length == 0) {
+            VirtualFile file = e.getData(CommonDataKeys.VIRTUAL_FILE);
+            files = file != null ? new VirtualFile[]{file} : VirtualFile.EMPTY_ARRAY;
+        }
+        FileTypeRegistry fileTypes = FileTypeRegistry.getInstance();
+        for (VirtualFile file : files) {
+            if (file.isDirectory() || fileTypes.isFileOfType(file, JavaFileType.INSTANCE)) {
+                selection.add(file);
+            }
+        }
+        return selection;
+    }
+
+    @NotNull
+    private static List<VirtualFile> collectJavaFiles(@NotNull Project project, @NotNull List<VirtualFile> selection) {
+        // Explicitly selected files are checked even outside source roots; directories are walked
+        // like a scope scan
+        Set<VirtualFile> files = new LinkedHashSet<>();
+        List<VirtualFile> directories = new ArrayList<>();
+        for (VirtualFile file : selection) {
+            if (file.isDirectory()) {
+                directories.add(file);
+            } else {
+                files.add(file);
+            }
+        }
+        if (!directories.isEmpty()) {
+            files.addAll(AutoserializableProjectScanner.collectJavaFiles(project, directories));
+        }
+        return new ArrayList<>(files);
+    }
+
+    @Nullable
+    private static FileResult analyzeFile(@NotNull Project project, @NotNull VirtualFile file) {
+        if (!DumbService.isDumb(project)) {
+            try {
+                return analyzeFile(project, file, false);
+            } catch (IndexNotReadyException e) {
+                // Indexing started meanwhile
+            }
+        }
+        return analyzeFile(project, file, true);
+    }
+
+    @Nullable
+    private static FileResult analyzeFile(@NotNull Project project, @NotNull VirtualFile file, boolean preliminary) {
+        if (!file.isValid()) {
+            return null;
+        }
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (!(psiFile instanceof PsiJavaFile)) {
+            return null;
+        }
+        
+        List<String> classNames = new ArrayList<>();
+        List<String> serialVersionUids = new ArrayList<>();
+        // Fast pre-check before expensive PSI analysis (a text search while indexing)
+        if (AutoserializableUtil.mightContainAutoserializable((PsiJavaFile) psiFile)) {
+            for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+                String className = psiClass.getName();
+                if (className == null) {
+                    continue;
+                }
+                if (preliminary ? AutoserializableSyntacticDetector.isLikelyAutoserializable(psiClass)
+                        : AutoserializableUtil.isAutoserializable(psiClass)) {
+                    classNames.add(className);
+                    serialVersionUids.add(describeSerialVersionUid(psiClass, preliminary));
+                }
+            }
+        }
+        return new FileResult(file.getName(), classNames, serialVersionUids, preliminary);
     }
 
-    private boolean isAutoserializable(PsiClass psiClass) {
-        // Use optimized cached utility
-        return AutoserializableUtil.isAutoserializable(psiClass);
+    @NotNull
+    private static String describeSerialVersionUid(@NotNull PsiClass psiClass, boolean preliminary) {
+        // Evaluating the initializer may resolve references, which fails while indexing
+        String explicit = preliminary ? AutoserializableShapeFingerprint.getWrittenSerialVersionUid(psiClass)
+                : AutoserializableShapeFingerprint.getExplicitSerialVersionUid(psiClass);
+        if (explicit != null) {
+            return "serialVersionUID " + explicit;
+        }
+        if (preliminary) {
+            return "default serialVersionUID known after indexing"; // Computing it needs resolved types
+        }
+        Long computed = AutoserializableSerialVersionUid.getDefault(psiClass);
+        return computed != null ? "default serialVersionUID " + computed + "L" : "no serialVersionUID";
     }
 
-    private void showNotification(Project project, String title, String content, NotificationType type) {
+    @NotNull
+    private static Notification showResults(@NotNull Project project, @NotNull List<FileResult> results) {
+        List<FileResult> found = new ArrayList<>();
+        int classCount = 0;
+        boolean preliminary = false;
+        for (FileResult result : results) {
+            preliminary |= result.preliminary;
+            if (!result.classNames.isEmpty()) {
+                found.add(result);
+                classCount += result.classNames.size();
+            }
+        }
+        String note = preliminary
+                ? "<br/><br/>⏳ Indexing is in progress: this result is preliminary and will be updated when indexing finishes."
+                : "";
+
+        String scope = results.size() == 1
+                ? "File <b>" + results.get(0).fileName + "</b>"
+                : results.size() + " Java files";
+        if (found.isEmpty()) {
+            return showNotification(project, "✓ Analysis Complete", 
+                scope + (results.size() == 1 ? " does" : " do") + " not contain any @AutoSerializable classes." + note,
+                NotificationType.INFORMATION);
+        }
+
+        StringBuilder message = new StringBuilder();
+        message.append(scope).append(results.size() == 1 ? " contains " : " contain ")
+               .append(classCount).append(" @AutoSerializable class(es):<br/>");
+        int listed = 0;
+        for (FileResult result : found) {
+            for (int i = 0; i < result.classNames.size(); i++) {
+                if (listed == MAX_LISTED_CLASSES) {
+                    break;
+                }
+                listed++;
+                message.append("• <b>").append(result.classNames.get(i)).append("</b>");
+                if (results.size() > 1) {
+                    message.append(" (").append(result.fileName).append(')');
+                }
+                message.append(" - ").append(result.serialVersionUids.get(i)).append("<br/>");
+            }
+        }
+        if (classCount > MAX_LISTED_CLASSES) {
+            message.append("• … and ").append(classCount - MAX_LISTED_CLASSES).append(" more<br/>");
+        }
+        
+        message.append("<br/>⚠️ Remember to:<br/>")
+               .append("• Maintain backward compatibility<br/>")
+               .append("• Update SerialVersionUID if needed<br/>")
+               .append("• Document all changes")
+               .append(note);
+        
+        return showNotification(project, "⚠️ AutoSerializable Classes Found", 
+            message.toString(), 
+            NotificationType.WARNING);
+    }
+
+    @NotNull
+    private static Notification showNotification(Project project, String title, String content, NotificationType type) {
         Notification notification = NotificationGroupManager.getInstance()
                 .getNotificationGroup("Autoserializable Warnings")
                 .createNotification(title, content, type);
         
         Notifications.Bus.notify(notification, project);
+        return notification;
     }
-}
 
+    private static final class FileResult {
+        private final String fileName;
+        private final List<String> classNames;
+        private final List<String> serialVersionUids;
+        // Decided while indexing, from the source alone
+        private final boolean preliminary;
+
+        FileResult(String fileName, List<String> classNames, List<String> serialVersionUids, boolean preliminary) {
+            this.fileName = fileName;
+            this.classNames = classNames;
+            this.serialVersionUids = serialVersionUids;
+            this.preliminary = preliminary;
+        }
+    }
+}
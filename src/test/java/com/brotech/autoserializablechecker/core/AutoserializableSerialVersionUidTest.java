@@ -0,0 +1,94 @@
+package com.brotech.autoserializablechecker.core;
+
+import com.intellij.openapi.projectRoots.JavaSdk;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.DefaultLightProjectDescriptor;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+import org.jetbrains.annotations.NotNull;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.ObjectStreamClass;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks the PSI-computed default serialVersionUID against {@link ObjectStreamClass} for the
+ * fixtures compiled by javac. The quick fix pins this value into user source, so every member
+ * javac adds that the PSI model has to guess (this$0, $assertionsDisabled, default constructors,
+ * bridges, the interface ABSTRACT flag) is covered by a fixture.
+ * The fixtures are shared with the Gradle plugin's ClassShapeReaderTest.
+ */
+public class AutoserializableSerialVersionUidTest extends LightJavaCodeInsightFixtureTestCase {
+
+    // The JDK running the test, so PSI and javac see the same library classes
+    private static final LightProjectDescriptor JDK = new DefaultLightProjectDescriptor(
+            () -> JavaSdk.getInstance().createJdk("java-home", System.getProperty("java.home"), false));
+
+    @Override
+    protected String getTestDataPath() {
+        return "src/test/testData/serialVersionUid";
+    }
+
+    @NotNull
+    @Override
+    protected LightProjectDescriptor getProjectDescriptor() {
+        return JDK;
+    }
+
+    public void testDefaultMatchesObjectStreamClass() throws Exception {
+        myFixture.copyDirectoryToProject("fixtures", "fixtures");
+        Path classes = FileUtil.createTempDirectory("serialVersionUid", null).toPath();
+        compile(Path.of(getTestDataPath(), "fixtures"), classes);
+
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(getProject());
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(getProject());
+        int compared = 0;
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, null)) {
+            for (String name : getClassNames(classes)) {
+                Class<?> type = Class.forName(name, false, loader);
+                ObjectStreamClass expected = ObjectStreamClass.lookup(type);
+                if (expected == null || type.isAnonymousClass() || type.isLocalClass()) {
+                    continue; // Not Serializable, or a compiler-dependent name with no computed default
+                }
+                PsiClass psiClass = facade.findClass(type.getCanonicalName(), scope);
+                assertNotNull(name, psiClass);
+                assertEquals(name, Long.valueOf(expected.getSerialVersionUID()), AutoserializableSerialVersionUid.getDefault(psiClass));
+                compared++;
+            }
+        }
+        assertTrue("No fixture was compared", compared > 0);
+    }
+
+    private static void compile(@NotNull Path sources, @NotNull Path output) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of("--release", "17", "-d", output.toString()));
+        try (Stream<Path> files = Files.list(sources)) {
+            files.filter(file -> file.toString().endsWith(".java")).forEach(file -> arguments.add(file.toString()));
+        }
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests must run on a JDK", javac);
+        assertEquals("javac failed", 0, javac.run(null, null, null, arguments.toArray(new String[0])));
+    }
+
+    @NotNull
+    private static List<String> getClassNames(@NotNull Path classes) throws Exception {
+        try (Stream<Path> files = Files.walk(classes)) {
+            return files.map(file -> classes.relativize(file).toString())
+                    .filter(path -> path.endsWith(".class"))
+                    .map(path -> path.substring(0, path.length() - ".class".length()).replace(File.separatorChar, '.'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
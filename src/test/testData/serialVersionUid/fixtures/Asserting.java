@@ -0,0 +1,26 @@
+package fixtures;
+
+import java.io.Serializable;
+
+public class Asserting implements Serializable {
+    int value;
+
+    void check() {
+        assert value >= 0 : "negative";
+    }
+
+    static class NestedWithoutAssert implements Serializable {
+        void check() {
+        }
+    }
+
+    static class NestedWithAssert implements Serializable {
+        static {
+            System.getProperty("x");
+        }
+
+        void check(Object o) {
+            assert o != null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package fixtures;
+
+import java.io.Serializable;
+
+public class Bridges implements Comparable<Bridges>, Serializable {
+    int rank;
+
+    @Override
+    public int compareTo(Bridges other) {
+        return Integer.compare(rank, other.rank);
+    }
+}
+
+class Sink<T> implements Serializable {
+    void accept(T value) {
+    }
+
+    Object self() {
+        return this;
+    }
+}
+
+class StringSink extends Sink<String> {
+    @Override
+    void accept(String value) {
+    }
+
+    @Override
+    protected StringSink self() {
+        return this;
+    }
+}
@@ -0,0 +1,26 @@
+package fixtures;
+
+import java.io.Serializable;
+
+public enum EnumsAndRecords {
+    PLAIN,
+    WITH_BODY {
+        @Override
+        int weight() {
+            return 2;
+        }
+    };
+
+    int weight() {
+        return 1;
+    }
+
+    record Point(int x, int y) implements Serializable {
+    }
+
+    record Named(String name, Point at) implements Serializable {
+        Named {
+            assert name != null;
+        }
+    }
+}
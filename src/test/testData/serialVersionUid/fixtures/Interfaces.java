@@ -0,0 +1,31 @@
+package fixtures;
+
+import java.io.Serializable;
+import java.util.function.Supplier;
+
+public interface Interfaces extends Serializable {
+    int size();
+
+    interface Tag extends Serializable {
+    }
+
+    interface Constants extends Serializable {
+        int ONE = 1;
+        Object SHARED = new Object();
+    }
+
+    interface WithDefault extends Serializable, Comparable<WithDefault> {
+        default int compareTo(WithDefault other) {
+            return 0;
+        }
+
+        static WithDefault create() {
+            return null;
+        }
+    }
+
+    interface Narrowed extends Serializable, Supplier<String> {
+        @Override
+        String get();
+    }
+}
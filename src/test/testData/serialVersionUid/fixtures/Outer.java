@@ -0,0 +1,38 @@
+package fixtures;
+
+import java.io.Serializable;
+
+public class Outer implements Serializable {
+    int value;
+
+    public static class StaticNested implements Serializable {
+        String name;
+    }
+
+    public class Inner implements Serializable {
+        int read() {
+            return value;
+        }
+    }
+
+    private class PrivateInner implements Serializable {
+    }
+
+    protected class InnerWithConstructor implements Serializable {
+        InnerWithConstructor(int value) {
+        }
+    }
+
+    class InnerOfInner implements Serializable {
+        class Deepest implements Serializable {
+            long depth;
+        }
+    }
+
+    interface NestedInterface extends Serializable {
+        void call();
+
+        class ClassInInterface implements Serializable {
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package fixtures;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class Plain implements Serializable {
+    public static final int CONSTANT = 1;
+    static final List<String> NAMES = List.of("a");
+    private static int counter;
+    protected transient String cache;
+    private final long id;
+    volatile int[][] grid;
+
+    public Plain(long id) {
+        this.id = id;
+    }
+
+    Plain() {
+        this(0);
+    }
+
+    public synchronized long getId() {
+        return id;
+    }
+
+    protected static List<String> names(String prefix, Object... more) {
+        return NAMES;
+    }
+
+    private void helper() {
+    }
+}
+
+abstract class AbstractBase implements Serializable {
+    abstract void run();
+}
+
+final class FinalLeaf extends AbstractBase {
+    @Override
+    void run() {
+    }
+}